@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot;
+
+import com.jagrosh.jmusicbot.queue.AbstractQueue;
+import com.jagrosh.jmusicbot.queue.Queueable;
+import com.jagrosh.jmusicbot.settings.QueueType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the queue operations the bot relies on. Every benchmark leaves
+ * the queue at the size it found it, so the numbers hold for that size, and
+ * entries come from a pool built up front so that the allocation rates
+ * reported by the GC profiler are those of the queue itself.
+ *
+ * Run with {@code mvn -Pjmh verify}.
+ *
+ * @author Jellyo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark
+{
+    private static final int POOL = 1024;
+    private static final int SKIP = 8;
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    @Param({"1", "20", "200"})
+    public int requesters;
+
+    @Param({"LINEAR", "FAIR", "WEIGHTED"})
+    public QueueType type;
+
+    private AbstractQueue<Entry> queue;
+    private Entry[] pool;
+    private int[] positions;
+    private long[] owners;
+    // what each owner has in the queue, to put back after removeAll
+    private List<List<Entry>> owned;
+    private List<Entry> refill;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setup()
+    {
+        Random random = new Random(42);
+        pool = new Entry[POOL];
+        positions = new int[POOL];
+        owners = new long[POOL];
+        for(int i=0; i<POOL; i++)
+        {
+            pool[i] = new Entry(random.nextInt(requesters), 30000 + random.nextInt(300000));
+            positions[i] = random.nextInt(size);
+            owners[i] = random.nextInt(requesters);
+        }
+        owned = new ArrayList<>(requesters);
+        for(int i=0; i<requesters; i++)
+            owned.add(new ArrayList<>());
+        List<Entry> items = new ArrayList<>(size);
+        for(int i=0; i<size; i++)
+        {
+            Entry entry = new Entry(i % requesters, 30000 + random.nextInt(300000));
+            items.add(entry);
+            owned.get(i % requesters).add(entry);
+        }
+        refill = new ArrayList<>();
+        for(int i=0; i<Math.min(SKIP, size); i++)
+            refill.add(pool[i]);
+        queue = type.createInstance(null);
+        queue.addAll(items);
+        next = 0;
+    }
+
+    @Benchmark
+    public Entry addPull()
+    {
+        queue.add(pool[next++ & (POOL - 1)]);
+        return queue.pull();
+    }
+
+    @Benchmark
+    public Entry addAtRemove()
+    {
+        int i = next++ & (POOL - 1);
+        queue.addAt(positions[i], pool[i]);
+        return queue.remove(positions[i]);
+    }
+
+    @Benchmark
+    public Entry moveItem()
+    {
+        int i = next++ & (POOL - 1);
+        return queue.moveItem(positions[i], positions[(i + 1) & (POOL - 1)]);
+    }
+
+    /**
+     * Adding once entries have been moved out of the schedule, and reading
+     * a position after that
+     */
+    @Benchmark
+    public Entry moveAddGet()
+    {
+        int i = next++ & (POOL - 1);
+        queue.moveItem(positions[i], positions[(i + 1) & (POOL - 1)]);
+        queue.add(pool[i]);
+        queue.get(positions[(i + 2) & (POOL - 1)]);
+        return queue.pull();
+    }
+
+    @Benchmark
+    public int shuffle()
+    {
+        return queue.shuffle(owners[next++ & (POOL - 1)]);
+    }
+
+    @Benchmark
+    public int removeAll()
+    {
+        int owner = (int) owners[next++ & (POOL - 1)];
+        int removed = queue.removeAll(owner);
+        queue.addAll(owned.get(owner));
+        return removed;
+    }
+
+    @Benchmark
+    public int skip()
+    {
+        queue.skip(refill.size());
+        queue.addAll(refill);
+        return queue.size();
+    }
+
+    public static class Entry implements Queueable
+    {
+        private final long identifier;
+        private final long duration;
+
+        private Entry(long identifier, long duration)
+        {
+            this.identifier = identifier;
+            this.duration = duration;
+        }
+
+        @Override
+        public long getIdentifier()
+        {
+            return identifier;
+        }
+
+        @Override
+        public long getDuration()
+        {
+            return duration;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import com.jagrosh.jdautilities.commons.waiter.EventWaiter;
 import com.jagrosh.jmusicbot.audio.AloneInVoiceHandler;
+import com.jagrosh.jmusicbot.audio.AutoplaylistStarter;
 import com.jagrosh.jmusicbot.audio.AudioHandler;
 import com.jagrosh.jmusicbot.audio.NowplayingHandler;
 import com.jagrosh.jmusicbot.audio.PlayerManager;
@@ -51,6 +52,7 @@ public class Bot
     private final PlaylistLoader playlists;
     private final NowplayingHandler nowplaying;
     private final AloneInVoiceHandler aloneInVoiceHandler;
+    private final AutoplaylistStarter autoplaylistStarter;
     
     private boolean shuttingDown = false;
     private JDA jda;
@@ -74,6 +76,7 @@ public class Bot
         this.nowplaying.init();
         this.aloneInVoiceHandler = new AloneInVoiceHandler(this);
         this.aloneInVoiceHandler.init();
+        this.autoplaylistStarter = new AutoplaylistStarter(this);
     }
     
     public BotConfig getConfig()
@@ -115,6 +118,11 @@ public class Bot
     {
         return aloneInVoiceHandler;
     }
+
+    public AutoplaylistStarter getAutoplaylistStarter()
+    {
+        return autoplaylistStarter;
+    }
     
     public JDA getJDA()
     {
@@ -150,7 +158,7 @@ public class Bot
                 if(ah!=null)
                 {
                     ah.stopAndClear();
-                    ah.getPlayer().destroy();
+                    ah.destroy();
                 }
             });
             jda.shutdown();
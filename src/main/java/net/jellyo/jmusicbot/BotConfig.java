@@ -48,9 +48,9 @@ public class BotConfig
             ytPoToken, ytVisitorData, evalEngine;
     private YouTubeUtil.RoutingPlanner ytRoutingPlanner;
     private List<IpBlock> ytIpBlocks;
-    private boolean stayInChannel, songInGame, npImages, updatealerts, useEval, dbots;
-    private long owner, maxSeconds, aloneTimeUntilStop;
-    private int maxYTPlaylistPages;
+    private boolean stayInChannel, songInGame, npImages, updatealerts, useEval, dbots, playlistJournal;
+    private long owner, maxSeconds, aloneTimeUntilStop, maxQueueSeconds, trackCacheHours, searchCacheHours;
+    private int maxYTPlaylistPages, maxUserEntries, maxTotalEntries, prefetchSeconds, trackCacheSize, searchCacheSize;
     private double skipratio;
     private OnlineStatus status;
     private Activity game;
@@ -102,8 +102,17 @@ public class BotConfig
             evalEngine = config.getString("evalengine");
             maxSeconds = config.getLong("maxtime");
             maxYTPlaylistPages = config.getInt("maxytplaylistpages");
+            maxUserEntries = config.getInt("maxuserentries");
+            maxQueueSeconds = config.getLong("maxqueuetime");
+            maxTotalEntries = config.getInt("maxtotalentries");
+            prefetchSeconds = config.getInt("prefetchseconds");
+            trackCacheSize = config.getInt("trackcachesize");
+            trackCacheHours = config.getLong("trackcachehours");
+            searchCacheSize = config.getInt("searchcachesize");
+            searchCacheHours = config.getLong("searchcachehours");
             aloneTimeUntilStop = config.getLong("alonetimeuntilstop");
             playlistsFolder = config.getString("playlistsfolder");
+            playlistJournal = config.getBoolean("playlistjournal");
             aliases = config.getConfig("aliases");
             ytPoToken = config.getString("ytpotoken");
             ytVisitorData = config.getString("ytvisitordata");
@@ -323,6 +332,11 @@ public class BotConfig
     {
         return playlistsFolder;
     }
+
+    public boolean getPlaylistJournal()
+    {
+        return playlistJournal;
+    }
     
     public boolean getDBots()
     {
@@ -389,6 +403,46 @@ public class BotConfig
         return TimeUtil.formatTime(maxSeconds * 1000);
     }
 
+    public int getMaxUserEntries()
+    {
+        return maxUserEntries;
+    }
+
+    public long getMaxQueueSeconds()
+    {
+        return maxQueueSeconds;
+    }
+
+    public int getMaxTotalEntries()
+    {
+        return maxTotalEntries;
+    }
+
+    public int getPrefetchSeconds()
+    {
+        return prefetchSeconds;
+    }
+
+    public int getTrackCacheSize()
+    {
+        return trackCacheSize;
+    }
+
+    public long getTrackCacheHours()
+    {
+        return trackCacheHours;
+    }
+
+    public int getSearchCacheSize()
+    {
+        return searchCacheSize;
+    }
+
+    public long getSearchCacheHours()
+    {
+        return searchCacheHours;
+    }
+
     public long getAloneTimeUntilStop()
     {
         return aloneTimeUntilStop;
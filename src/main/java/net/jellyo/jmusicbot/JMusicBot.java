@@ -215,7 +215,9 @@ public class JMusicBot
                         new StopCmd(bot),
                         new VolumeCmd(bot),
                         
+                        new DuplicatesCmd(bot),
                         new PrefixCmd(bot),
+                        new QueueLimitCmd(bot),
                         new QueueTypeCmd(bot),
                         new SetdjCmd(bot),
                         new SkipratioCmd(bot),
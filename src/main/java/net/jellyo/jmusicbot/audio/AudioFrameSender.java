@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.audio;
+
+import com.sedmelluq.discord.lavaplayer.format.StandardAudioDataFormats;
+import com.sedmelluq.discord.lavaplayer.track.playback.AudioFrameProvider;
+import com.sedmelluq.discord.lavaplayer.track.playback.MutableAudioFrame;
+import java.nio.ByteBuffer;
+
+/**
+ * Hands a player's frames to JDA through one frame and one buffer that are
+ * reused for every frame. Together with a non-allocating frame buffer in the
+ * player, nothing is allocated per frame on JDA's audio send thread, which
+ * runs 50 times a second for every playing guild.
+ *
+ * Only JDA's send thread may ask for frames, but the provider they come
+ * from can be switched from any thread.
+ *
+ * @author Jellyo
+ */
+public class AudioFrameSender
+{
+    private volatile AudioFrameProvider provider;
+    private final ByteBuffer buffer = ByteBuffer.allocate(StandardAudioDataFormats.DISCORD_OPUS.maximumChunkSize());
+    private final MutableAudioFrame frame = new MutableAudioFrame();
+
+    public AudioFrameSender(AudioFrameProvider provider)
+    {
+        this.provider = provider;
+        this.frame.setBuffer(buffer);
+    }
+
+    /**
+     * @param provider where the following frames come from
+     */
+    public void setProvider(AudioFrameProvider provider)
+    {
+        this.provider = provider;
+    }
+
+    /**
+     * @return whether the next frame has been copied into the buffer
+     */
+    public boolean canProvide()
+    {
+        buffer.clear();
+        return provider.provide(frame);
+    }
+
+    /**
+     * @return the buffer, holding the frame copied by {@link #canProvide()};
+     * it is only valid until the next call to that method
+     */
+    public ByteBuffer provide20MsAudio()
+    {
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -15,8 +15,11 @@
  */
 package com.jagrosh.jmusicbot.audio;
 
-import com.jagrosh.jmusicbot.playlist.PlaylistLoader.Playlist;
+import com.jagrosh.jmusicbot.BotConfig;
+import com.jagrosh.jmusicbot.playlist.PlaylistLoader.LazyPlaylist;
+import com.jagrosh.jmusicbot.playlist.SharedCursor;
 import com.jagrosh.jmusicbot.queue.AbstractQueue;
+import com.jagrosh.jmusicbot.queue.QueueHolder;
 import com.jagrosh.jmusicbot.settings.QueueType;
 import com.jagrosh.jmusicbot.utils.TimeUtil;
 import com.jagrosh.jmusicbot.settings.RepeatMode;
@@ -25,11 +28,15 @@ import com.sedmelluq.discord.lavaplayer.player.event.AudioEventAdapter;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackEndReason;
-import com.sedmelluq.discord.lavaplayer.track.playback.AudioFrame;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import com.jagrosh.jmusicbot.settings.Settings;
 import com.jagrosh.jmusicbot.utils.FormatUtil;
 import com.sedmelluq.discord.lavaplayer.source.youtube.YoutubeAudioTrack;
@@ -52,70 +59,290 @@ public class AudioHandler extends AudioEventAdapter implements AudioSendHandler
     public final static String PLAY_EMOJI  = "\u25B6"; // ▶
     public final static String PAUSE_EMOJI = "\u23F8"; // ⏸
     public final static String STOP_EMOJI  = "\u23F9"; // ⏹
+    // how many items of a lazy default playlist are resolved ahead of the one playing
+    public final static int DEFAULT_LOOKAHEAD = 3;
 
 
-    private final List<AudioTrack> defaultQueue = new LinkedList<>();
+    private final Queue<AudioTrack> defaultQueue = new ConcurrentLinkedQueue<>();
+    // the default playlist being played a few items at a time, and how many of its items are resolving
+    private volatile LazyPlaylist defaultLazy;
+    private final AtomicInteger defaultPending = new AtomicInteger();
+    // this guild's place in the default playlist it shares with other guilds
+    private volatile SharedCursor<AudioTrack> defaultCursor;
     private final Set<String> votes = new HashSet<>();
     
     private final PlayerManager manager;
-    private final AudioPlayer audioPlayer;
     private final long guildId;
     
-    private AudioFrame lastFrame;
-    private AbstractQueue<QueuedTrack> queue;
+    private final AudioFrameSender sender;
+    private final AudioMetrics metrics = new AudioMetrics();
+    // the player being heard; it trades places with the standby player on a gapless handover
+    private volatile AudioPlayer audioPlayer;
+    private final long prefetchMillis;
+    // the next entry, started paused on the standby player so it is loaded and buffered
+    // by the time the current one ends; guarded by this handler's lock
+    private AudioPlayer standby;
+    private QueuedTrack prefetched;
+    private AudioTrack prefetchedTrack;
+    // whether a prefetch has been started for the current track; set by the send thread
+    private volatile boolean prefetching = false;
+    // when the last track ended, until the next one's first frame is sent
+    private volatile long handoverStart = 0;
+    private final QueueHolder<QueuedTrack> queues;
 
     protected AudioHandler(PlayerManager manager, Guild guild, AudioPlayer player)
     {
         this.manager = manager;
         this.audioPlayer = player;
+        this.sender = new AudioFrameSender(player);
         this.guildId = guild.getIdLong();
+        this.prefetchMillis = manager.getBot().getConfig().getPrefetchSeconds() * 1000L;
 
-        this.setQueueType(manager.getBot().getSettingsManager().getSettings(guildId).getQueueType());
+        this.queues = new QueueHolder<>(manager.getBot().getSettingsManager().getSettings(guildId).getQueueType()::createInstance,
+                manager.getQueuedEntries());
     }
 
     public void setQueueType(QueueType type)
     {
-        queue = type.createInstance(queue);
+        queues.replace(type::createInstance);
     }
 
-    public int addTrackToFront(QueuedTrack qtrack)
+    /**
+     * Puts a track at the front of the queue, or starts it if nothing is
+     * playing. The same checks as {@link #addTrack(QueuedTrack)} apply.
+     *
+     * @param qtrack the track
+     * @return where the track was queued, or why it was not
+     */
+    public AddResult addTrackToFront(QueuedTrack qtrack)
     {
-        if(audioPlayer.getPlayingTrack()==null)
+        return addTrack(qtrack, true);
+    }
+    
+    /**
+     * Queues a track, or starts it if nothing is playing. The server's
+     * duplicate setting and the queue limits are checked while the queue is
+     * locked, so two requests can not both pass the checks and then break
+     * the limit together.
+     *
+     * @param qtrack the track
+     * @return where the track was queued, or why it was not
+     */
+    public AddResult addTrack(QueuedTrack qtrack)
+    {
+        return addTrack(qtrack, false);
+    }
+    
+    private AddResult addTrack(QueuedTrack qtrack, boolean front)
+    {
+        synchronized(queues)
         {
-            audioPlayer.playTrack(qtrack.getTrack());
-            return -1;
+            AbstractQueue<QueuedTrack> queue = queues.get();
+            if(audioPlayer.getPlayingTrack()==null)
+            {
+                audioPlayer.playTrack(qtrack.getTrack());
+                return new AddResult(-1, null);
+            }
+            String reason = checkLimits(queue, qtrack);
+            if(reason != null)
+                return new AddResult(-1, reason);
+            if(front)
+            {
+                queue.addAt(0, qtrack);
+                return new AddResult(0, null);
+            }
+            return new AddResult(queue.add(qtrack), null);
         }
-        else
+    }
+    
+    /**
+     * Queues several tracks at once, which takes a single pass over the queue.
+     * If nothing is playing, the first track starts instead of being queued.
+     * Tracks are taken in order until one would break a queue limit. If the
+     * server does not allow duplicates, tracks that are already playing or
+     * queued are first removed from the list.
+     *
+     * @param qtracks the tracks, in the order they were requested
+     * @return how many of the tracks were played or queued
+     */
+    public int addTracks(List<QueuedTrack> qtracks)
+    {
+        return addTracks(qtracks, false);
+    }
+    
+    /**
+     * Puts several tracks at the front of the queue at once, keeping their
+     * order. If nothing is playing, the first track starts instead. Tracks
+     * are taken in order until one would break a queue limit. If the server
+     * does not allow duplicates, tracks that are already playing or queued
+     * are first removed from the list.
+     *
+     * @param qtracks the tracks, in the order they should play
+     * @return how many of the tracks were played or queued
+     */
+    public int addTracksToFront(List<QueuedTrack> qtracks)
+    {
+        return addTracks(qtracks, true);
+    }
+    
+    private int addTracks(List<QueuedTrack> qtracks, boolean front)
+    {
+        synchronized(queues)
         {
-            queue.addAt(0, qtrack);
-            return 0;
+            AbstractQueue<QueuedTrack> queue = queues.get();
+            if(!manager.getBot().getSettingsManager().getSettings(guildId).isDuplicatesAllowed())
+                removeDuplicates(queue, qtracks);
+            if(qtracks.isEmpty())
+                return 0;
+            int started = 0;
+            if(audioPlayer.getPlayingTrack()==null)
+            {
+                audioPlayer.playTrack(qtracks.get(0).getTrack());
+                qtracks = qtracks.subList(1, qtracks.size());
+                started = 1;
+            }
+            Map<Long, Integer> entries = new HashMap<>();
+            long duration = 0;
+            int admitted = 0;
+            for(QueuedTrack qtrack: qtracks)
+            {
+                int owned = entries.merge(qtrack.getIdentifier(), 1, Integer::sum);
+                if(checkLimits(queue, qtrack.getIdentifier(), owned, admitted + 1, duration + qtrack.getDuration()) != null)
+                    break;
+                duration += qtrack.getDuration();
+                admitted++;
+            }
+            if(front)
+                queue.addAllAt(0, qtracks.subList(0, admitted));
+            else
+                queue.addAll(qtracks.subList(0, admitted));
+            return started + admitted;
         }
     }
     
-    public int addTrack(QueuedTrack qtrack)
+    /**
+     * Removes the tracks that are already playing or queued, as well as
+     * repeats within the list itself. Each check is O(1).
+     */
+    private void removeDuplicates(AbstractQueue<QueuedTrack> queue, List<QueuedTrack> qtracks)
     {
-        if(audioPlayer.getPlayingTrack()==null)
+        Set<String> seen = new HashSet<>();
+        AudioTrack playing = audioPlayer.getPlayingTrack();
+        if(playing != null)
+            seen.addAll(QueuedTrack.keysOf(playing));
+        qtracks.removeIf(qtrack -> 
         {
-            audioPlayer.playTrack(qtrack.getTrack());
-            return -1;
+            boolean duplicate = queue.containsDuplicate(qtrack);
+            for(String key: qtrack.getKeys())
+                duplicate |= !seen.add(key);
+            return duplicate;
+        });
+    }
+    
+    /**
+     * Checks the track against the server's duplicate setting and the
+     * per-user, per-guild and global queue limits. Every count and index
+     * involved is kept up to date as the queues change, so this is O(1).
+     * Tracks are checked again as they are added, so this only tells
+     * someone why a track was not.
+     *
+     * @param qtrack a track that is about to be added
+     * @return why the track can not be added, or null if it can
+     */
+    public String checkLimits(QueuedTrack qtrack)
+    {
+        synchronized(queues)
+        {
+            AbstractQueue<QueuedTrack> queue = queues.get();
+            return audioPlayer.getPlayingTrack()==null ? null : checkLimits(queue, qtrack);
         }
-        else
-            return queue.add(qtrack);
+    }
+    
+    private String checkLimits(AbstractQueue<QueuedTrack> queue, QueuedTrack qtrack)
+    {
+        if(!manager.getBot().getSettingsManager().getSettings(guildId).isDuplicatesAllowed())
+        {
+            AudioTrack playing = audioPlayer.getPlayingTrack();
+            if(playing != null && !Collections.disjoint(QueuedTrack.keysOf(playing), qtrack.getKeys()))
+                return "it is already playing";
+            if(queue.containsDuplicate(qtrack))
+                return "it is already in the queue";
+        }
+        return checkLimits(queue, qtrack.getIdentifier(), 1, 1, qtrack.getDuration());
+    }
+    
+    private String checkLimits(AbstractQueue<QueuedTrack> queue, long owner, int ownerEntries, int entries, long duration)
+    {
+        BotConfig config = manager.getBot().getConfig();
+        Settings settings = manager.getBot().getSettingsManager().getSettings(guildId);
+        int maxUserEntries = settings.getMaxUserEntries() < 0 ? config.getMaxUserEntries() : settings.getMaxUserEntries();
+        if(maxUserEntries > 0 && queue.count(owner) + ownerEntries > maxUserEntries)
+            return "you can only have "+maxUserEntries+" entries in the queue at a time";
+        long maxQueueSeconds = settings.getMaxQueueSeconds() < 0 ? config.getMaxQueueSeconds() : settings.getMaxQueueSeconds();
+        if(maxQueueSeconds > 0 && queue.getTotalDuration() + duration > maxQueueSeconds * 1000)
+            return "the queue can be at most `"+TimeUtil.formatTime(maxQueueSeconds * 1000)+"` long";
+        // shared by every guild, so another guild may slip in between; the cap is approximate
+        int maxTotalEntries = config.getMaxTotalEntries();
+        if(maxTotalEntries > 0 && manager.getQueuedEntries().get() + entries > maxTotalEntries)
+            return "too many tracks are queued across all servers right now, please try again later";
+        return null;
+    }
+    
+    /**
+     * @param index a position in the queue
+     * @return about how long until the entry at that position starts, in milliseconds
+     */
+    public long getTimeUntil(int index)
+    {
+        AudioTrack playing = audioPlayer.getPlayingTrack();
+        long remaining = playing == null || playing.getInfo().isStream ? 0 : playing.getDuration() - playing.getPosition();
+        return remaining + queues.get().getDurationBefore(index);
     }
     
     public AbstractQueue<QueuedTrack> getQueue()
     {
-        return queue;
+        return queues.get();
+    }
+    
+    /**
+     * @return the holder of the queue, whose lock is held while changing the queue
+     */
+    public QueueHolder<QueuedTrack> getQueueHolder()
+    {
+        return queues;
+    }
+    
+    /**
+     * @return the send path metrics of this guild, which keep updating
+     */
+    public AudioMetrics getMetrics()
+    {
+        return metrics;
     }
     
     public void stopAndClear()
     {
-        queue.clear();
+        synchronized(queues)
+        {
+            queues.get().clear();
+        }
         defaultQueue.clear();
+        defaultLazy = null;
+        closeDefault();
+        destroyStandby();
         audioPlayer.stopTrack();
         //current = null;
     }
     
+    /**
+     * Destroys both players, once the handler is no longer used
+     */
+    public synchronized void destroy()
+    {
+        destroyStandby();
+        audioPlayer.destroy();
+    }
+    
     public boolean isMusicPlaying(JDA jda)
     {
         return guild(jda).getSelfMember().getVoiceState().inVoiceChannel() && audioPlayer.getPlayingTrack()!=null;
@@ -141,51 +368,248 @@ public class AudioHandler extends AudioEventAdapter implements AudioSendHandler
     
     public boolean playFromDefault()
     {
-        if(!defaultQueue.isEmpty())
+        AudioTrack next = defaultQueue.poll();
+        if(next != null)
         {
-            audioPlayer.playTrack(defaultQueue.remove(0));
+            audioPlayer.playTrack(next);
+            resolveDefault();
             return true;
         }
+        // the next item is still resolving, and starts when it arrives
+        if(defaultLazy != null && defaultPending.get() > 0)
+            return true;
+        defaultLazy = null;
+        SharedCursor<AudioTrack> previous = defaultCursor;
+        if(previous != null)
+        {
+            synchronized(previous)
+            {
+                next = previous.next();
+                if(next != null)
+                {
+                    audioPlayer.playTrack(next);
+                    return true;
+                }
+                // the rest of the playlist is still resolving, and starts as it arrives
+                if(!previous.isFinished())
+                    return true;
+            }
+        }
         Settings settings = manager.getBot().getSettingsManager().getSettings(guildId);
         if(settings==null || settings.getDefaultPlaylist()==null)
+        {
+            closeDefault();
             return false;
+        }
         
-        Playlist pl = manager.getBot().getPlaylistLoader().getPlaylist(settings.getDefaultPlaylist());
-        if(pl==null || pl.getItems().isEmpty())
-            return false;
-        pl.loadTracks(manager, (at) -> 
+        LazyPlaylist lazy = manager.getBot().getPlaylistLoader().getLazyPlaylist(settings.getDefaultPlaylist());
+        if(lazy != null)
         {
-            if(audioPlayer.getPlayingTrack()==null)
-                audioPlayer.playTrack(at);
-            else
-                defaultQueue.add(at);
-        }, () -> 
+            closeDefault();
+            defaultLazy = lazy;
+            resolveDefault();
+            return true;
+        }
+        // opened before the last cursor is closed, so a playlist this guild is starting over is not resolved again
+        SharedCursor<AudioTrack> cursor = manager.getBot().getPlaylistLoader().openShared(settings.getDefaultPlaylist(), manager, this::defaultAvailable);
+        closeDefault();
+        if(cursor == null)
+            return false;
+        defaultCursor = cursor;
+        defaultAvailable(cursor);
+        return true;
+    }
+
+    /**
+     * Starts the next track of the shared default playlist if nothing is
+     * playing, or leaves if the playlist turned out to have nothing in it
+     */
+    private void defaultAvailable(SharedCursor<AudioTrack> cursor)
+    {
+        synchronized(cursor)
         {
-            if(pl.getTracks().isEmpty() && !manager.getBot().getConfig().getStay())
+            if(cursor != defaultCursor || audioPlayer.getPlayingTrack() != null)
+                return;
+            AudioTrack next = cursor.next();
+            if(next != null)
+                audioPlayer.playTrack(next);
+            else if(cursor.isFinished() && cursor.getTotal() == 0 && !manager.getBot().getConfig().getStay())
                 manager.getBot().closeAudioConnection(guildId);
-        });
-        return true;
+        }
+    }
+
+    private void closeDefault()
+    {
+        SharedCursor<AudioTrack> cursor = defaultCursor;
+        defaultCursor = null;
+        if(cursor != null)
+            cursor.close();
+    }
+
+    /**
+     * Keeps {@link #DEFAULT_LOOKAHEAD} items of the lazy default playlist
+     * resolved or resolving, so only those are ever held
+     */
+    private void resolveDefault()
+    {
+        LazyPlaylist lazy = defaultLazy;
+        while(lazy != null && lazy == defaultLazy && lazy.hasNext() 
+                && defaultQueue.size() + defaultPending.get() < DEFAULT_LOOKAHEAD)
+        {
+            defaultPending.incrementAndGet();
+            lazy.loadNext(manager, tracks -> 
+            {
+                defaultPending.decrementAndGet();
+                // stopped, or the playlist was started again, while this item resolved
+                if(lazy != defaultLazy)
+                    return;
+                if(tracks.isEmpty())
+                {
+                    if(defaultPending.get() == 0 && defaultQueue.isEmpty() && audioPlayer.getPlayingTrack()==null 
+                            && queues.get().isEmpty() && !manager.getBot().getConfig().getStay())
+                        manager.getBot().closeAudioConnection(guildId);
+                    return;
+                }
+                if(audioPlayer.getPlayingTrack()==null)
+                {
+                    audioPlayer.playTrack(tracks.get(0));
+                    tracks = tracks.subList(1, tracks.size());
+                }
+                defaultQueue.addAll(tracks);
+                resolveDefault();
+            });
+        }
+    }
+    
+    /**
+     * Starts the entry at the head of the queue, paused, on the standby player.
+     * Nothing is prefetched for repeat single, since the current track plays
+     * again.
+     *
+     * @param current the track that was playing when the prefetch was asked for
+     */
+    private synchronized void prefetch(AudioTrack current)
+    {
+        if(audioPlayer.getPlayingTrack() != current)
+            return;
+        cancelPrefetch();
+        if(manager.getBot().getSettingsManager().getSettings(guildId).getRepeatMode() == RepeatMode.SINGLE)
+            return;
+        QueuedTrack next;
+        synchronized(queues)
+        {
+            AbstractQueue<QueuedTrack> queue = queues.get();
+            next = queue.isEmpty() ? null : queue.get(0);
+        }
+        if(next == null)
+            return;
+        if(standby == null)
+        {
+            standby = manager.createPlayer();
+            standby.addListener(this);
+        }
+        // the queued track itself stays unplayed, so it can still be played normally if the queue changes
+        AudioTrack track = next.getTrack().makeClone();
+        if(track.isSeekable())
+            track.setPosition(next.getTrack().getPosition());
+        standby.setPaused(true);
+        standby.setVolume(audioPlayer.getVolume());
+        if(standby.startTrack(track, false))
+        {
+            prefetched = next;
+            prefetchedTrack = track;
+        }
+    }
+    
+    private synchronized void cancelPrefetch()
+    {
+        if(prefetchedTrack != null)
+            standby.stopTrack();
+        prefetched = null;
+        prefetchedTrack = null;
+    }
+    
+    /**
+     * Drops any prefetch along with the standby player, which is created
+     * again the next time something is prefetched
+     */
+    private synchronized void destroyStandby()
+    {
+        cancelPrefetch();
+        if(standby != null)
+        {
+            standby.destroy();
+            standby = null;
+        }
+    }
+    
+    /**
+     * Plays the entry that was just pulled from the queue. If it is the one
+     * that was prefetched, and still is loaded on the standby player, the
+     * players trade places so it starts from its buffered frames at once.
+     * Otherwise any prefetch is dropped and the entry is loaded as usual.
+     */
+    private void playNext(AudioPlayer player, QueuedTrack qt)
+    {
+        synchronized(this)
+        {
+            AudioPlayer ready = standby;
+            if(qt == prefetched && ready.getPlayingTrack() == prefetchedTrack)
+            {
+                prefetched = null;
+                prefetchedTrack = null;
+                standby = player;
+                ready.setVolume(player.getVolume());
+                audioPlayer = ready;
+                sender.setProvider(ready);
+                prefetching = false;
+                ready.setPaused(player.isPaused());
+                // the standby player's start event was ignored, so do what it would have done
+                onTrackStart(ready, ready.getPlayingTrack());
+                return;
+            }
+            cancelPrefetch();
+        }
+        player.playTrack(qt.getTrack());
     }
     
     // Audio Events
     @Override
     public void onTrackEnd(AudioPlayer player, AudioTrack track, AudioTrackEndReason endReason) 
     {
+        // a prefetch that was stopped or cleaned up before it was needed
+        if(player != audioPlayer)
+        {
+            // left waiting too long, such as while paused; let the send thread start it again
+            if(endReason == AudioTrackEndReason.CLEANUP)
+                prefetching = false;
+            return;
+        }
+        long ended = System.nanoTime();
         RepeatMode repeatMode = manager.getBot().getSettingsManager().getSettings(guildId).getRepeatMode();
-        // if the track ended normally, and we're in repeat mode, re-add it to the queue
-        if(endReason==AudioTrackEndReason.FINISHED && repeatMode != RepeatMode.OFF)
+        QueuedTrack qt;
+        synchronized(queues)
         {
-            QueuedTrack clone = new QueuedTrack(track.makeClone(), track.getUserData(RequestMetadata.class));
-            if(repeatMode == RepeatMode.ALL)
-                queue.add(clone);
-            else
-                queue.addAt(0, clone);
+            AbstractQueue<QueuedTrack> queue = queues.get();
+            // if the track ended normally, and we're in repeat mode, re-add it to the queue
+            if(endReason==AudioTrackEndReason.FINISHED && repeatMode != RepeatMode.OFF)
+            {
+                QueuedTrack clone = new QueuedTrack(track.makeClone(), track.getUserData(RequestMetadata.class));
+                if(repeatMode == RepeatMode.ALL)
+                    queue.add(clone);
+                else
+                    queue.addAt(0, clone);
+            }
+            qt = queue.isEmpty() ? null : queue.pull();
         }
         
-        if(queue.isEmpty())
+        if(qt == null)
         {
+            cancelPrefetch();
+            handoverStart = ended;
             if(!playFromDefault())
             {
+                handoverStart = 0;
                 manager.getBot().getNowplayingHandler().onTrackUpdate(null);
                 if(!manager.getBot().getConfig().getStay())
                     manager.getBot().closeAudioConnection(guildId);
@@ -196,8 +620,8 @@ public class AudioHandler extends AudioEventAdapter implements AudioSendHandler
         }
         else
         {
-            QueuedTrack qt = queue.pull();
-            player.playTrack(qt.getTrack());
+            handoverStart = ended;
+            playNext(player, qt);
         }
     }
 
@@ -209,6 +633,9 @@ public class AudioHandler extends AudioEventAdapter implements AudioSendHandler
     @Override
     public void onTrackStart(AudioPlayer player, AudioTrack track) 
     {
+        if(player != audioPlayer)
+            return;
+        prefetching = false;
         votes.clear();
         manager.getBot().getNowplayingHandler().onTrackUpdate(track);
     }
@@ -281,38 +708,35 @@ public class AudioHandler extends AudioEventAdapter implements AudioSendHandler
     }
     
     // Audio Send Handler methods
-    /*@Override
-    public boolean canProvide() 
-    {
-        if (lastFrame == null)
-            lastFrame = audioPlayer.provide();
-
-        return lastFrame != null;
-    }
-
-    @Override
-    public byte[] provide20MsAudio() 
-    {
-        if (lastFrame == null) 
-            lastFrame = audioPlayer.provide();
-
-        byte[] data = lastFrame != null ? lastFrame.getData() : null;
-        lastFrame = null;
-
-        return data;
-    }*/
-    
     @Override
     public boolean canProvide() 
     {
-        lastFrame = audioPlayer.provide();
-        return lastFrame != null;
+        long start = System.nanoTime();
+        boolean provided = sender.canProvide();
+        long end = System.nanoTime();
+        AudioPlayer player = audioPlayer;
+        AudioTrack playing = player.getPlayingTrack();
+        metrics.record(start, end, provided, playing!=null && !player.isPaused());
+        if(provided && handoverStart != 0)
+        {
+            metrics.recordHandover(end - handoverStart);
+            handoverStart = 0;
+        }
+        // near the end of the track, have the next one loaded in the background
+        if(provided && !prefetching && prefetchMillis > 0 && playing != null && !playing.getInfo().isStream
+                && playing.getDuration() - playing.getPosition() <= prefetchMillis
+                && !manager.getBot().getThreadpool().isShutdown())
+        {
+            prefetching = true;
+            manager.getBot().getThreadpool().submit(() -> prefetch(playing));
+        }
+        return provided;
     }
 
     @Override
     public ByteBuffer provide20MsAudio() 
     {
-        return ByteBuffer.wrap(lastFrame.getData());
+        return sender.provide20MsAudio();
     }
 
     @Override
@@ -327,4 +751,35 @@ public class AudioHandler extends AudioEventAdapter implements AudioSendHandler
     {
         return jda.getGuildById(guildId);
     }
+
+    /**
+     * What became of a track that was added
+     */
+    public static class AddResult
+    {
+        private final int position;
+        private final String rejection;
+
+        private AddResult(int position, String rejection)
+        {
+            this.position = position;
+            this.rejection = rejection;
+        }
+
+        /**
+         * @return where the track was queued, or -1 if it began playing
+         */
+        public int getPosition()
+        {
+            return position;
+        }
+
+        /**
+         * @return why the track was not added, or null if it was
+         */
+        public String getRejection()
+        {
+            return rejection;
+        }
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters and histograms for one guild's audio send path. They are written
+ * only by JDA's audio send thread, without locks or allocation, and can be
+ * read from any thread at any time.
+ *
+ * Histograms have power of two buckets in microseconds: bucket 0 counts
+ * values under 1µs, and bucket i values from 2^(i-1) up to 2^i µs. The last
+ * bucket also counts everything longer.
+ *
+ * @author Jellyo
+ */
+public class AudioMetrics
+{
+    public final static int BUCKETS = 24;
+    public final static long FRAME_NANOS = 20_000_000;
+
+    private final AtomicLong provided = new AtomicLong();
+    private final AtomicLong missed = new AtomicLong();
+    private final AtomicLong provideNanos = new AtomicLong();
+    private final AtomicLongArray provideTimes = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray jitter = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray handovers = new AtomicLongArray(BUCKETS);
+    // when the previous frame was asked for while playing, or 0; only the send thread touches this
+    private long lastCall = 0;
+
+    /**
+     * Records one call of the send handler's canProvide
+     *
+     * @param start when the call started, from {@link System#nanoTime()}
+     * @param end when the call returned, from {@link System#nanoTime()}
+     * @param frame whether a frame was provided
+     * @param playing whether a track was playing and not paused
+     */
+    public void record(long start, long end, boolean frame, boolean playing)
+    {
+        if(frame)
+            provided.incrementAndGet();
+        else if(playing)
+            missed.incrementAndGet();
+        provideNanos.addAndGet(end - start);
+        provideTimes.incrementAndGet(bucket(end - start));
+        // only measure the cadence while playing, so pauses are not counted as jitter
+        if(lastCall != 0 && playing)
+            jitter.incrementAndGet(bucket(Math.abs(start - lastCall - FRAME_NANOS)));
+        lastCall = playing ? start : 0;
+    }
+
+    /**
+     * Records the time from one track ending to the first frame of the next
+     *
+     * @param nanos the time in nanoseconds
+     */
+    public void recordHandover(long nanos)
+    {
+        handovers.incrementAndGet(bucket(nanos));
+    }
+
+    /**
+     * @return how many frames have been handed to JDA
+     */
+    public long getFramesProvided()
+    {
+        return provided.get();
+    }
+
+    /**
+     * @return how many times there was no frame ready while a track was playing
+     */
+    public long getFramesMissed()
+    {
+        return missed.get();
+    }
+
+    /**
+     * @return the total time spent getting frames from the player, in nanoseconds
+     */
+    public long getProvideNanos()
+    {
+        return provideNanos.get();
+    }
+
+    /**
+     * @return how long getting each frame from the player took
+     */
+    public long[] getProvideHistogram()
+    {
+        return copy(provideTimes);
+    }
+
+    /**
+     * @return how far each interval between frames was from 20ms
+     */
+    public long[] getJitterHistogram()
+    {
+        return copy(jitter);
+    }
+
+    /**
+     * @return how long each track took to start after the previous one ended
+     */
+    public long[] getHandoverHistogram()
+    {
+        return copy(handovers);
+    }
+
+    /**
+     * @param histogram a histogram from this class
+     * @param fraction the fraction of values, such as 0.99
+     * @return the upper bound in microseconds of the bucket that holds that
+     * fraction of the values, or 0 if there are none
+     */
+    public static long percentile(long[] histogram, double fraction)
+    {
+        long total = 0;
+        for(long count: histogram)
+            total += count;
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for(int i=0; i<histogram.length; i++)
+        {
+            seen += histogram[i];
+            if(total > 0 && seen >= target)
+                return 1L << i;
+        }
+        return 0;
+    }
+
+    static int bucket(long nanos)
+    {
+        long micros = nanos / 1000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static long[] copy(AtomicLongArray array)
+    {
+        long[] values = new long[array.length()];
+        for(int i=0; i<values.length; i++)
+            values[i] = array.get(i);
+        return values;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.audio;
+
+import com.jagrosh.jmusicbot.Bot;
+import com.jagrosh.jmusicbot.settings.Settings;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.VoiceChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts the default playlists of every guild once the bot is ready. Only a
+ * few guilds are started at a time, each after a random delay, so a restart
+ * does not open every voice connection and load every playlist at once.
+ * Guilds with the most people already in the bot's voice channel go first.
+ * A guild keeps its slot until it starts playing, or until it has been given
+ * long enough. Only the timing runs on the bot's thread pool; the starts
+ * themselves, which parse the playlists, run on threads of their own so
+ * they do not hold up the bot's other tasks.
+ *
+ * @author Jellyo
+ */
+public class AutoplaylistStarter
+{
+    // how many guilds can be starting at once
+    public final static int CONCURRENT_STARTS = 4;
+    // the longest a start is put off, so that starts are spread out
+    public final static long JITTER_MILLIS = 1500;
+    // how long a guild has to start playing before its slot goes to the next one
+    public final static long START_TIMEOUT_MILLIS = 20000;
+
+    private final static Logger LOG = LoggerFactory.getLogger(AutoplaylistStarter.class);
+    private final static long CHECK_MILLIS = 500;
+    private final static long PROGRESS_MILLIS = 5000;
+    private final static long IDLE_SECONDS = 30;
+
+    private final Bot bot;
+    private final Random random = new Random();
+    // one thread per slot, let go once the guilds have been started
+    private final ThreadPoolExecutor starters = new ThreadPoolExecutor(CONCURRENT_STARTS, CONCURRENT_STARTS,
+            IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r ->
+            {
+                Thread thread = new Thread(r, "autoplaylist-starter");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private final ArrayDeque<Long> waiting = new ArrayDeque<>();
+    // the guilds being started, and when their start was due
+    private final Map<Long, Long> starting = new HashMap<>();
+    private JDA jda;
+    private ScheduledFuture<?> checker;
+    private int total = 0, playing = 0, done = 0;
+    private long begun = 0, finished = 0, reported = 0;
+
+    public AutoplaylistStarter(Bot bot)
+    {
+        this.bot = bot;
+        starters.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Plans the starts on the bot's thread pool, so the caller
+     * is not held up
+     *
+     * @param jda the JDA instance that is ready
+     */
+    public void start(JDA jda)
+    {
+        bot.getThreadpool().submit(() -> plan(jda));
+    }
+
+    /**
+     * @return how many guilds have a default playlist to start
+     */
+    public synchronized int getTotal()
+    {
+        return total;
+    }
+
+    /**
+     * @return how many guilds have been started or given up on
+     */
+    public synchronized int getDone()
+    {
+        return done;
+    }
+
+    /**
+     * @return how many guilds started playing
+     */
+    public synchronized int getPlaying()
+    {
+        return playing;
+    }
+
+    /**
+     * @return how long it took to start every guild, in milliseconds, or -1
+     * if the guilds are still being started
+     */
+    public synchronized long getWarmUpTime()
+    {
+        return finished == 0 ? -1 : finished - begun;
+    }
+
+    private synchronized void plan(JDA jda)
+    {
+        this.jda = jda;
+        List<Guild> guilds = new ArrayList<>();
+        Map<Long, Integer> listeners = new HashMap<>();
+        for(Guild guild: jda.getGuilds())
+        {
+            Settings settings = bot.getSettingsManager().getSettings(guild);
+            VoiceChannel vc = settings.getVoiceChannel(guild);
+            if(settings.getDefaultPlaylist()==null || vc==null)
+                continue;
+            guilds.add(guild);
+            listeners.put(guild.getIdLong(), (int) vc.getMembers().stream().filter(m -> !m.getUser().isBot()).count());
+        }
+        guilds.sort(Comparator.comparing((Guild guild) -> listeners.get(guild.getIdLong())).reversed());
+        guilds.forEach(guild -> waiting.add(guild.getIdLong()));
+        total = guilds.size();
+        begun = reported = System.currentTimeMillis();
+        if(total == 0)
+        {
+            finished = begun;
+            return;
+        }
+        LOG.info("Starting default playlists in "+total+" guilds, "+CONCURRENT_STARTS+" at a time");
+        checker = bot.getThreadpool().scheduleWithFixedDelay(this::check, 0, CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void check()
+    {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Long, Long>> it = starting.entrySet().iterator();
+        while(it.hasNext())
+        {
+            Map.Entry<Long, Long> entry = it.next();
+            if(entry.getValue() > now)
+                continue;
+            if(isPlaying(entry.getKey()))
+                playing++;
+            else if(now - entry.getValue() < START_TIMEOUT_MILLIS)
+                continue;
+            it.remove();
+            done++;
+        }
+        while(starting.size() < CONCURRENT_STARTS && !waiting.isEmpty())
+        {
+            long id = waiting.poll();
+            long delay = (long) (random.nextDouble() * JITTER_MILLIS);
+            starting.put(id, now + delay);
+            bot.getThreadpool().schedule(() -> starters.execute(() -> startGuild(id)), delay, TimeUnit.MILLISECONDS);
+        }
+        if(waiting.isEmpty() && starting.isEmpty())
+        {
+            finished = now;
+            checker.cancel(false);
+            LOG.info("Default playlists are playing in "+playing+" of "+total+" guilds, warmed up in "+(finished - begun)+"ms");
+        }
+        else if(now - reported >= PROGRESS_MILLIS)
+        {
+            reported = now;
+            LOG.info("Started default playlists in "+done+" of "+total+" guilds, "+playing+" playing");
+        }
+    }
+
+    private void startGuild(long id)
+    {
+        boolean started = false;
+        try
+        {
+            Guild guild = jda.getGuildById(id);
+            if(guild != null)
+            {
+                Settings settings = bot.getSettingsManager().getSettings(guild);
+                VoiceChannel vc = settings.getVoiceChannel(guild);
+                if(settings.getDefaultPlaylist()!=null && vc!=null && bot.getPlayerManager().setUpHandler(guild).playFromDefault())
+                {
+                    guild.getAudioManager().openAudioConnection(vc);
+                    started = true;
+                }
+            }
+        }
+        catch(Exception ex)
+        {
+            LOG.warn("Could not start the default playlist of guild "+id, ex);
+        }
+        if(!started)
+        {
+            // nothing to wait for, so its slot is free right away
+            synchronized(this)
+            {
+                if(starting.remove(id) != null)
+                    done++;
+            }
+        }
+    }
+
+    private boolean isPlaying(long id)
+    {
+        Guild guild = jda.getGuildById(id);
+        if(guild == null || !(guild.getAudioManager().getSendingHandler() instanceof AudioHandler))
+            return false;
+        return ((AudioHandler) guild.getAudioManager().getSendingHandler()).getPlayer().getPlayingTrack() != null;
+    }
+}
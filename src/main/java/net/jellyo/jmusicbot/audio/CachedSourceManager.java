@@ -0,0 +1,446 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.audio;
+
+import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.source.AudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioItem;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.BasicAudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves loads from the track and search caches. It is registered ahead of
+ * every other source, so a cached identifier never reaches the real one, and
+ * since it runs on the player manager's loader threads, cached loads keep
+ * their place among the other loads with the same ordering key.
+ *
+ * It also coalesces identical loads: while one load of an identifier is
+ * being resolved by the real sources, other loads of it are given their own
+ * clones of what it found once it reports back. Each of them still waits
+ * for its turn among the loads with its own ordering key first, but then
+ * gives its loader thread back right away, as a {@link Following}
+ * placeholder that {@link #follow} turns into the result.
+ *
+ * The tracks it returns are decoded by the source that first resolved them,
+ * so this source never has to encode or decode anything itself.
+ *
+ * @author Jellyo
+ */
+public class CachedSourceManager implements AudioSourceManager
+{
+    // how many of a search's results are kept; the search menu shows four
+    public final static int SEARCH_RESULTS = 5;
+    // how long a load waits for an identical one before it is resolved on its own
+    private final static long FLIGHT_TIMEOUT = 30;
+
+    private final static Logger LOG = LoggerFactory.getLogger(CachedSourceManager.class);
+    private final TrackCache tracks;
+    private final TrackCache searches;
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    // the load this loader thread is resolving for others, until its handler is called
+    private final ThreadLocal<Flight> leading = new ThreadLocal<>();
+
+    /**
+     * @param tracks the cache of links to tracks, or null
+     * @param searches the cache of searches to their results, or null
+     */
+    public CachedSourceManager(TrackCache tracks, TrackCache searches)
+    {
+        this.tracks = tracks;
+        this.searches = searches;
+    }
+
+    @Override
+    public String getSourceName()
+    {
+        return "cache";
+    }
+
+    @Override
+    public AudioItem loadItem(AudioPlayerManager manager, AudioReference reference)
+    {
+        AudioItem cached = fromCache(manager, reference.identifier);
+        if(cached != null)
+            return cached;
+        String key = flightKey(reference.identifier);
+        // already resolving something for others, and this is where it redirected to
+        if(key == null || leading.get() != null)
+            return null;
+        Flight flight = new Flight(key);
+        Flight existing = flights.putIfAbsent(key, flight);
+        if(existing == null)
+        {
+            // the real sources resolve it, and the player manager reports back through land
+            leading.set(flight);
+            return null;
+        }
+        return new Following(existing);
+    }
+
+    /**
+     * Hands a load that is following an identical one what that one finds,
+     * once it has found it. This is called from the load's handler, so its
+     * loader thread is not held while it waits.
+     *
+     * @param playlist what the load was given
+     * @param handler the load's own handler
+     * @param retry starts the load again, for when it has to be resolved on
+     * its own after all
+     * @return whether the load was following another, in which case the
+     * handler will be called later instead
+     */
+    public boolean follow(AudioPlaylist playlist, AudioLoadResultHandler handler, Runnable retry)
+    {
+        if(!(playlist instanceof Following))
+            return false;
+        Flight flight = ((Following) playlist).flight;
+        flight.result.copy().orTimeout(FLIGHT_TIMEOUT, TimeUnit.SECONDS)
+                .whenComplete((item, failure) -> deliver(flight, item, failure, handler, retry));
+        return true;
+    }
+
+    /**
+     * Hands what a load found to the identical loads waiting on it. The
+     * player manager calls this before the load's own handler, as that may
+     * change the tracks.
+     *
+     * @param identifier what was loaded
+     * @param item the track or playlist found, or
+     * {@link AudioReference#NO_TRACK} if there was nothing
+     */
+    public void land(String identifier, AudioItem item)
+    {
+        Flight flight = landing(identifier);
+        if(flight != null)
+            flight.result.complete(copy(item));
+    }
+
+    /**
+     * Hands the failure of a load to the identical loads waiting on it
+     *
+     * @param identifier what was loaded
+     * @param exception why it failed
+     */
+    public void land(String identifier, FriendlyException exception)
+    {
+        Flight flight = landing(identifier);
+        if(flight != null)
+            flight.result.completeExceptionally(exception);
+    }
+
+    /**
+     * Caches a track that was loaded from the given identifier
+     *
+     * @param manager the manager to encode the track with
+     * @param identifier what was loaded
+     * @param track what it resolved to
+     */
+    public void store(AudioPlayerManager manager, String identifier, AudioTrack track)
+    {
+        String key = TrackCache.canonicalize(identifier);
+        // a stream's details change while it is live
+        if(tracks == null || key == null || track.getInfo().isStream || tracks.get(key) != null)
+            return;
+        byte[] encoded = encode(manager, key, Collections.singletonList(track));
+        if(encoded != null)
+            tracks.put(key, encoded);
+    }
+
+    /**
+     * Caches the first results of a search, and each of those results by
+     * its own link
+     *
+     * @param manager the manager to encode the tracks with
+     * @param identifier the search that was loaded
+     * @param playlist what it found
+     */
+    public void store(AudioPlayerManager manager, String identifier, AudioPlaylist playlist)
+    {
+        String key = TrackCache.searchKey(identifier);
+        if(searches == null || key == null || !playlist.isSearchResult() || playlist.getTracks().isEmpty() || searches.get(key) != null)
+            return;
+        List<AudioTrack> results = playlist.getTracks().subList(0, Math.min(SEARCH_RESULTS, playlist.getTracks().size()));
+        byte[] encoded = encode(manager, key, results);
+        if(encoded == null)
+            return;
+        searches.put(key, encoded);
+        for(AudioTrack track: results)
+            store(manager, track.getInfo().uri, track);
+    }
+
+    /**
+     * @return the cache of links to tracks, or null if it is turned off
+     */
+    public TrackCache getTracks()
+    {
+        return tracks;
+    }
+
+    /**
+     * @return the cache of searches, or null if it is turned off
+     */
+    public TrackCache getSearches()
+    {
+        return searches;
+    }
+
+    private AudioItem fromCache(AudioPlayerManager manager, String identifier)
+    {
+        String key = TrackCache.canonicalize(identifier);
+        if(key != null && tracks != null)
+        {
+            List<AudioTrack> found = decode(manager, key, tracks.get(key));
+            return found == null ? null : found.get(0);
+        }
+        key = TrackCache.searchKey(identifier);
+        if(key != null && searches != null)
+        {
+            List<AudioTrack> found = decode(manager, key, searches.get(key));
+            String query = identifier.substring(identifier.indexOf(':') + 1).trim();
+            return found == null ? null : new BasicAudioPlaylist("Search results for: " + query, found, null, true);
+        }
+        return null;
+    }
+
+    private void deliver(Flight flight, AudioItem item, Throwable failure, AudioLoadResultHandler handler, Runnable retry)
+    {
+        if(failure instanceof CompletionException)
+            failure = failure.getCause();
+        try
+        {
+            if(failure instanceof TimeoutException)
+            {
+                // the load being waited on never reported back, so stop sending others to it
+                flights.remove(flight.key, flight);
+                retry.run();
+                return;
+            }
+            if(failure != null)
+            {
+                handler.loadFailed(failure instanceof FriendlyException ? (FriendlyException) failure
+                        : new FriendlyException("Failed to load the track", FriendlyException.Severity.FAULT, failure));
+                return;
+            }
+            AudioItem copy = copy(item);
+            if(copy == null)
+                retry.run();
+            else if(copy instanceof AudioTrack)
+                handler.trackLoaded((AudioTrack) copy);
+            else if(copy instanceof AudioPlaylist)
+                handler.playlistLoaded((AudioPlaylist) copy);
+            else
+                handler.noMatches();
+        }
+        catch(RuntimeException ex)
+        {
+            LOG.warn("Failed to hand " + flight.key + " to a load waiting on it", ex);
+        }
+    }
+
+    private Flight landing(String identifier)
+    {
+        Flight flight = leading.get();
+        if(flight == null || !flight.key.equals(flightKey(identifier)))
+            return null;
+        leading.remove();
+        flights.remove(flight.key, flight);
+        return flight;
+    }
+
+    private static String flightKey(String identifier)
+    {
+        if(identifier == null)
+            return null;
+        String key = TrackCache.canonicalize(identifier);
+        if(key == null)
+            key = TrackCache.searchKey(identifier);
+        return key == null ? identifier.trim() : key;
+    }
+
+    /**
+     * @return a copy of the item with its own tracks, or null if they cannot
+     * be cloned, in which case the caller has to resolve it itself
+     */
+    private static AudioItem copy(AudioItem item)
+    {
+        try
+        {
+            if(item instanceof AudioTrack)
+                return ((AudioTrack) item).makeClone();
+            if(item instanceof AudioPlaylist)
+            {
+                AudioPlaylist playlist = (AudioPlaylist) item;
+                List<AudioTrack> clones = new ArrayList<>(playlist.getTracks().size());
+                AudioTrack selected = null;
+                for(AudioTrack track: playlist.getTracks())
+                {
+                    AudioTrack clone = track.makeClone();
+                    if(track == playlist.getSelectedTrack())
+                        selected = clone;
+                    clones.add(clone);
+                }
+                return new BasicAudioPlaylist(playlist.getName(), clones, selected, playlist.isSearchResult());
+            }
+            return item;
+        }
+        catch(UnsupportedOperationException ex)
+        {
+            return null;
+        }
+    }
+
+    private static byte[] encode(AudioPlayerManager manager, String key, List<AudioTrack> list)
+    {
+        try
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            MessageOutput output = new MessageOutput(out);
+            for(AudioTrack track: list)
+                manager.encodeTrack(output, track);
+            output.finishMessage();
+            return out.toByteArray();
+        }
+        catch(IOException ex)
+        {
+            LOG.warn("Failed to encode " + key + " for the cache", ex);
+            return null;
+        }
+    }
+
+    /**
+     * @return the tracks, or null if there were none or any could not be decoded
+     */
+    private static List<AudioTrack> decode(AudioPlayerManager manager, String key, byte[] encoded)
+    {
+        if(encoded == null)
+            return null;
+        try
+        {
+            MessageInput input = new MessageInput(new ByteArrayInputStream(encoded));
+            List<AudioTrack> list = new ArrayList<>();
+            for(DecodedTrackHolder holder = manager.decodeTrack(input); holder != null; holder = manager.decodeTrack(input))
+            {
+                // the source that resolved it may no longer be registered
+                if(holder.decodedTrack == null)
+                    return null;
+                list.add(holder.decodedTrack);
+            }
+            return list.isEmpty() ? null : list;
+        }
+        catch(IOException ex)
+        {
+            LOG.warn("Failed to decode the cached tracks for " + key, ex);
+            return null;
+        }
+    }
+
+    private static class Flight
+    {
+        private final String key;
+        private final CompletableFuture<AudioItem> result = new CompletableFuture<>();
+
+        private Flight(String key)
+        {
+            this.key = key;
+        }
+    }
+
+    /**
+     * What a load following an identical one is given in place of a result;
+     * its handler passes it to {@link #follow} and is not given it itself
+     */
+    static class Following implements AudioPlaylist
+    {
+        private final Flight flight;
+
+        private Following(Flight flight)
+        {
+            this.flight = flight;
+        }
+
+        @Override
+        public String getName()
+        {
+            return flight.key;
+        }
+
+        @Override
+        public List<AudioTrack> getTracks()
+        {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public AudioTrack getSelectedTrack()
+        {
+            return null;
+        }
+
+        @Override
+        public boolean isSearchResult()
+        {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isTrackEncodable(AudioTrack track)
+    {
+        return false;
+    }
+
+    @Override
+    public void encodeTrack(AudioTrack track, DataOutput output)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AudioTrack decodeTrack(AudioTrackInfo trackInfo, DataInput input)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void shutdown()
+    {
+        if(tracks != null)
+            tracks.close();
+    }
+}
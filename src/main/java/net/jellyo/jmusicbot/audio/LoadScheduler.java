@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.audio;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides when loads start, so that loads someone is waiting on are not
+ * stuck behind a backlog of playlist items. Each priority has its own limit
+ * on how many of its loads run at once, and background loads only start
+ * while no interactive load is waiting.
+ *
+ * @author Jellyo
+ */
+public class LoadScheduler
+{
+    private final static Logger LOG = LoggerFactory.getLogger(LoadScheduler.class);
+
+    public enum Priority
+    {
+        // a user is waiting on the result
+        INTERACTIVE,
+        // playlist items and other bulk loads
+        BACKGROUND
+    }
+
+    private final int[] limits;
+    private final int[] running;
+    private final List<ArrayDeque<Job>> queues;
+    // how long loads waited to start, bucketed like AudioMetrics
+    private final List<AtomicLongArray> waits;
+    private final long[] started;
+
+    /**
+     * @param interactive how many interactive loads can run at once
+     * @param background how many background loads can run at once
+     */
+    public LoadScheduler(int interactive, int background)
+    {
+        Priority[] priorities = Priority.values();
+        this.limits = new int[]{interactive, background};
+        this.running = new int[priorities.length];
+        this.started = new long[priorities.length];
+        this.queues = new ArrayList<>(priorities.length);
+        this.waits = new ArrayList<>(priorities.length);
+        for(Priority priority: priorities)
+        {
+            queues.add(new ArrayDeque<>());
+            waits.add(new AtomicLongArray(AudioMetrics.BUCKETS));
+        }
+    }
+
+    /**
+     * Starts a load once its priority allows it
+     *
+     * @param priority the load's priority
+     * @param load starts the load when accepted, and must run the
+     * {@link Runnable} it is given exactly once when the load has finished
+     */
+    public void submit(Priority priority, Consumer<Runnable> load)
+    {
+        synchronized(this)
+        {
+            queues.get(priority.ordinal()).add(new Job(priority, load, System.nanoTime()));
+        }
+        dispatch();
+    }
+
+    /**
+     * @param priority a priority
+     * @return how many of its loads are waiting to start
+     */
+    public synchronized int getQueued(Priority priority)
+    {
+        return queues.get(priority.ordinal()).size();
+    }
+
+    /**
+     * @param priority a priority
+     * @return how many of its loads are running
+     */
+    public synchronized int getRunning(Priority priority)
+    {
+        return running[priority.ordinal()];
+    }
+
+    /**
+     * @param priority a priority
+     * @return how many of its loads have been started
+     */
+    public synchronized long getStarted(Priority priority)
+    {
+        return started[priority.ordinal()];
+    }
+
+    /**
+     * @param priority a priority
+     * @return how long its loads waited to start, as a histogram for
+     * {@link AudioMetrics#percentile(long[], double)}
+     */
+    public long[] getWaitHistogram(Priority priority)
+    {
+        AtomicLongArray array = waits.get(priority.ordinal());
+        long[] values = new long[array.length()];
+        for(int i=0; i<values.length; i++)
+            values[i] = array.get(i);
+        return values;
+    }
+
+    private void finished(Priority priority)
+    {
+        synchronized(this)
+        {
+            running[priority.ordinal()]--;
+        }
+        dispatch();
+    }
+
+    private void dispatch()
+    {
+        // loads are started outside the lock, as they may finish right away
+        List<Job> ready = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized(this)
+        {
+            take(Priority.INTERACTIVE, ready);
+            if(queues.get(Priority.INTERACTIVE.ordinal()).isEmpty())
+                take(Priority.BACKGROUND, ready);
+        }
+        for(Job job: ready)
+        {
+            waits.get(job.priority.ordinal()).incrementAndGet(AudioMetrics.bucket(now - job.submitted));
+            boolean[] done = {false};
+            Runnable finish = () ->
+            {
+                synchronized(done)
+                {
+                    if(done[0])
+                        return;
+                    done[0] = true;
+                }
+                finished(job.priority);
+            };
+            try
+            {
+                job.load.accept(finish);
+            }
+            catch(RuntimeException ex)
+            {
+                // such as a rejected executor; free the slot and start the rest anyway
+                LOG.warn("A load failed to start", ex);
+                finish.run();
+            }
+        }
+    }
+
+    private void take(Priority priority, List<Job> ready)
+    {
+        int i = priority.ordinal();
+        ArrayDeque<Job> queue = queues.get(i);
+        while(running[i] < limits[i] && !queue.isEmpty())
+        {
+            ready.add(queue.poll());
+            running[i]++;
+            started[i]++;
+        }
+    }
+
+    private static class Job
+    {
+        private final Priority priority;
+        private final Consumer<Runnable> load;
+        private final long submitted;
+
+        private Job(Priority priority, Consumer<Runnable> load, long submitted)
+        {
+            this.priority = priority;
+            this.load = load;
+            this.submitted = submitted;
+        }
+    }
+}
@@ -18,8 +18,10 @@ package com.jagrosh.jmusicbot.audio;
 import com.dunctebot.sourcemanagers.DuncteBotSources;
 import com.jagrosh.jmusicbot.Bot;
 import com.jagrosh.jmusicbot.BotConfig;
+import com.jagrosh.jmusicbot.utils.OtherUtil;
 import com.jagrosh.jmusicbot.utils.YouTubeUtil;
 import com.sedmelluq.discord.lavaplayer.container.MediaContainerRegistry;
+import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.source.AudioSourceManagers;
@@ -31,6 +33,11 @@ import com.sedmelluq.discord.lavaplayer.source.nico.NicoAudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.source.soundcloud.SoundCloudAudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.source.twitch.TwitchStreamAudioSourceManager;
 import com.sedmelluq.discord.lavaplayer.source.vimeo.VimeoAudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
+import com.sedmelluq.discord.lavaplayer.track.AudioReference;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.NonAllocatingAudioFrameBuffer;
 import com.sedmelluq.lava.extensions.youtuberotator.YoutubeIpRotatorSetup;
 import com.sedmelluq.lava.extensions.youtuberotator.planner.AbstractRoutePlanner;
 import com.sedmelluq.lava.extensions.youtuberotator.planner.BalancingIpRoutePlanner;
@@ -42,6 +49,11 @@ import dev.lavalink.youtube.YoutubeAudioSourceManager;
 import dev.lavalink.youtube.clients.Web;
 import net.dv8tion.jda.api.entities.Guild;
 import com.github.topi314.lavasrc.spotify.SpotifySourceManager;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  *
@@ -49,9 +61,18 @@ import com.github.topi314.lavasrc.spotify.SpotifySourceManager;
  */
 public class PlayerManager extends DefaultAudioPlayerManager
 {
+    private final static String TRACK_CACHE_FILE = "track-cache.db";
+    // how many loads of each priority run at once; together they fill the loader threads
+    private final static int INTERACTIVE_LOADS = 6;
+    private final static int BACKGROUND_LOADS = 4;
+
     private final Bot bot;
     
     private final BotConfig config;
+    // entries queued across every guild
+    private final AtomicInteger queuedEntries = new AtomicInteger();
+    private final LoadScheduler scheduler = new LoadScheduler(INTERACTIVE_LOADS, BACKGROUND_LOADS);
+    private CachedSourceManager cachedSource;
 
     public PlayerManager(Bot bot, BotConfig config)
     {
@@ -61,6 +82,23 @@ public class PlayerManager extends DefaultAudioPlayerManager
 
     public void init()
     {
+        // frames are copied into each handler's own buffer instead of being allocated one by one
+        getConfiguration().setFrameBufferFactory(NonAllocatingAudioFrameBuffer::new);
+        setItemLoaderThreadPoolSize(INTERACTIVE_LOADS + BACKGROUND_LOADS);
+
+        // the cache goes first, so that what it knows and what is already being loaded never reach the real sources
+        TrackCache tracks = null, searches = null;
+        if(config.getTrackCacheSize() > 0)
+        {
+            tracks = new TrackCache(config.getTrackCacheSize(), TimeUnit.HOURS.toMillis(config.getTrackCacheHours()), OtherUtil.getPath(TRACK_CACHE_FILE));
+            tracks.init();
+        }
+        // search results change often enough that they are only kept in memory
+        if(config.getSearchCacheSize() > 0)
+            searches = new TrackCache(config.getSearchCacheSize(), TimeUnit.HOURS.toMillis(config.getSearchCacheHours()), null);
+        cachedSource = new CachedSourceManager(tracks, searches);
+        registerSourceManager(cachedSource);
+
         TransformativeAudioSourceManager.createTransforms(bot.getConfig().getTransforms()).forEach(t -> registerSourceManager(t));
 
         if (config.getYTPoToken() != null && config.getYTVisitorData() != null)
@@ -112,6 +150,196 @@ public class PlayerManager extends DefaultAudioPlayerManager
         return bot;
     }
     
+    public AtomicInteger getQueuedEntries()
+    {
+        return queuedEntries;
+    }
+    
+    /**
+     * @return the source that serves loads from the caches and coalesces
+     * identical loads
+     */
+    public CachedSourceManager getCachedSource()
+    {
+        return cachedSource;
+    }
+
+    public LoadScheduler getScheduler()
+    {
+        return scheduler;
+    }
+
+    @Override
+    public Future<Void> loadItem(AudioReference reference, AudioLoadResultHandler handler)
+    {
+        return loadItem(reference, handler, LoadScheduler.Priority.INTERACTIVE);
+    }
+
+    public Future<Void> loadItem(String identifier, AudioLoadResultHandler handler, LoadScheduler.Priority priority)
+    {
+        return loadItem(new AudioReference(identifier, null), handler, priority);
+    }
+
+    /**
+     * Loads an item once the scheduler lets loads of the given priority start
+     */
+    public Future<Void> loadItem(AudioReference reference, AudioLoadResultHandler handler, LoadScheduler.Priority priority)
+    {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        schedule(priority, reference, completing(handler, future), wrapped -> super.loadItem(reference, wrapped));
+        return future;
+    }
+
+    @Override
+    public Future<Void> loadItemOrdered(Object orderingKey, AudioReference reference, AudioLoadResultHandler handler)
+    {
+        return loadItemOrdered(orderingKey, reference, handler, LoadScheduler.Priority.INTERACTIVE);
+    }
+
+    public Future<Void> loadItemOrdered(Object orderingKey, String identifier, AudioLoadResultHandler handler, LoadScheduler.Priority priority)
+    {
+        return loadItemOrdered(orderingKey, new AudioReference(identifier, null), handler, priority);
+    }
+
+    /**
+     * Loads an item once the scheduler lets loads of the given priority
+     * start. Loads with the same ordering key and priority finish in the
+     * order they were made, except that one following an identical load
+     * finishes when that one does; an interactive load can overtake
+     * background loads with the same key that have not started yet.
+     */
+    public Future<Void> loadItemOrdered(Object orderingKey, AudioReference reference, AudioLoadResultHandler handler, LoadScheduler.Priority priority)
+    {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        schedule(priority, reference, completing(handler, future), wrapped -> super.loadItemOrdered(orderingKey, reference, wrapped));
+        return future;
+    }
+
+    /**
+     * Starts a load once the scheduler lets it. The load holds its slot only
+     * while a loader thread is on it, not while it follows an identical load.
+     */
+    private void schedule(LoadScheduler.Priority priority, AudioReference reference, AudioLoadResultHandler handler,
+            Consumer<AudioLoadResultHandler> load)
+    {
+        scheduler.submit(priority, done -> load.accept(releasing(cached(reference, handler,
+                () -> schedule(priority, reference, handler, load)), done)));
+    }
+
+    /**
+     * Wraps a handler so that the load's slot is freed once it has been called
+     */
+    private static AudioLoadResultHandler releasing(AudioLoadResultHandler handler, Runnable done)
+    {
+        return new AudioLoadResultHandler()
+        {
+            @Override
+            public void trackLoaded(AudioTrack track)
+            {
+                try
+                {
+                    handler.trackLoaded(track);
+                }
+                finally
+                {
+                    done.run();
+                }
+            }
+
+            @Override
+            public void playlistLoaded(AudioPlaylist playlist)
+            {
+                try
+                {
+                    handler.playlistLoaded(playlist);
+                }
+                finally
+                {
+                    done.run();
+                }
+            }
+
+            @Override
+            public void noMatches()
+            {
+                try
+                {
+                    handler.noMatches();
+                }
+                finally
+                {
+                    done.run();
+                }
+            }
+
+            @Override
+            public void loadFailed(FriendlyException exception)
+            {
+                try
+                {
+                    handler.loadFailed(exception);
+                }
+                finally
+                {
+                    done.run();
+                }
+            }
+        };
+    }
+
+    /**
+     * Wraps a handler so that the future is completed once it has been called
+     */
+    private static AudioLoadResultHandler completing(AudioLoadResultHandler handler, CompletableFuture<Void> future)
+    {
+        return releasing(handler, () -> future.complete(null));
+    }
+
+    /**
+     * Wraps a handler so that what it is given goes into the caches and to
+     * any identical loads waiting on it
+     */
+    private AudioLoadResultHandler cached(AudioReference reference, AudioLoadResultHandler handler, Runnable retry)
+    {
+        if(cachedSource == null || reference.identifier == null)
+            return handler;
+        return new AudioLoadResultHandler()
+        {
+            @Override
+            public void trackLoaded(AudioTrack track)
+            {
+                cachedSource.store(PlayerManager.this, reference.identifier, track);
+                cachedSource.land(reference.identifier, track);
+                handler.trackLoaded(track);
+            }
+
+            @Override
+            public void playlistLoaded(AudioPlaylist playlist)
+            {
+                // following an identical load, which hands it the result later
+                if(cachedSource.follow(playlist, handler, retry))
+                    return;
+                cachedSource.store(PlayerManager.this, reference.identifier, playlist);
+                cachedSource.land(reference.identifier, playlist);
+                handler.playlistLoaded(playlist);
+            }
+
+            @Override
+            public void noMatches()
+            {
+                cachedSource.land(reference.identifier, AudioReference.NO_TRACK);
+                handler.noMatches();
+            }
+
+            @Override
+            public void loadFailed(FriendlyException exception)
+            {
+                cachedSource.land(reference.identifier, exception);
+                handler.loadFailed(exception);
+            }
+        };
+    }
+    
     public boolean hasHandler(Guild guild)
     {
         return guild.getAudioManager().getSendingHandler()!=null;
@@ -19,6 +19,9 @@ import com.jagrosh.jmusicbot.utils.TimeUtil;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
 import com.jagrosh.jmusicbot.queue.Queueable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import net.dv8tion.jda.api.entities.User;
 
 /**
@@ -29,6 +32,7 @@ public class QueuedTrack implements Queueable
 {
     private final AudioTrack track;
     private final RequestMetadata requestMetadata;
+    private final List<String> keys;
 
     public QueuedTrack(AudioTrack track, RequestMetadata rm)
     {
@@ -36,6 +40,7 @@ public class QueuedTrack implements Queueable
         this.track.setUserData(rm == null ? RequestMetadata.EMPTY : rm);
 
         this.requestMetadata = rm;
+        this.keys = keysOf(track);
         if (this.track.isSeekable() && rm != null)
             track.setPosition(rm.requestInfo.startTimestamp);
     }
@@ -46,6 +51,23 @@ public class QueuedTrack implements Queueable
         return requestMetadata.getOwner();
     }
     
+    @Override
+    public long getDuration()
+    {
+        // streams have no length; count them as zero so sums stay meaningful
+        return track.getInfo().isStream ? 0 : track.getDuration();
+    }
+    
+    /**
+     * @return the track's identifier and uri, since the same track can be
+     * reached through several links
+     */
+    @Override
+    public List<String> getKeys()
+    {
+        return keys;
+    }
+    
     public AudioTrack getTrack()
     {
         return track;
@@ -56,6 +78,14 @@ public class QueuedTrack implements Queueable
         return requestMetadata;
     }
 
+    public static List<String> keysOf(AudioTrack track)
+    {
+        AudioTrackInfo info = track.getInfo();
+        if(info.uri == null || info.uri.equals(info.identifier))
+            return Collections.singletonList(info.identifier);
+        return Arrays.asList(info.identifier, info.uri);
+    }
+
     @Override
     public String toString() 
     {
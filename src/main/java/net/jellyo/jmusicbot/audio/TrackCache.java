@@ -0,0 +1,332 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.audio;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers what identifiers resolved to, as encoded tracks, so that loading
+ * the same thing again does not have to go back to the source. Recently used
+ * entries are kept in memory, and if the cache has a file every entry is also
+ * written to an SQLite database there, so they survive restarts. Entries
+ * expire a fixed time after they were resolved, whichever tier they are found
+ * in.
+ *
+ * @author Jellyo
+ */
+public class TrackCache
+{
+    private final static Logger LOG = LoggerFactory.getLogger(TrackCache.class);
+    private final static String[] SEARCH_PREFIXES = {"ytsearch:", "ytmsearch:", "scsearch:"};
+    private final static Pattern VIDEO_ID = Pattern.compile("[A-Za-z0-9_-]{11}");
+    // hosts that serve the same thing with or without www. or m. in front
+    private final static Set<String> FOLDED_HOSTS = new HashSet<>(Arrays.asList("youtube.com", "youtube-nocookie.com", "soundcloud.com"));
+    // how many writes there are between removing expired rows from the database
+    private final static int PRUNE_INTERVAL = 1000;
+
+    private final int size;
+    private final long ttl;
+    private final Path file;
+    private final LinkedHashMap<String, Entry> memory;
+    private Connection connection;
+    private int writes = 0;
+
+    /**
+     * @param size how many entries to keep in memory
+     * @param ttl how long entries are kept, in milliseconds
+     * @param file the database to keep every entry in, or null to only
+     * keep them in memory
+     */
+    public TrackCache(int size, long ttl, Path file)
+    {
+        this.size = size;
+        this.ttl = ttl;
+        this.file = file;
+        this.memory = new LinkedHashMap<String, Entry>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest)
+            {
+                return size() > TrackCache.this.size;
+            }
+        };
+    }
+
+    /**
+     * Opens the database, creating it if needed, and drops expired entries.
+     * If it cannot be opened the cache only keeps entries in memory.
+     */
+    public synchronized void init()
+    {
+        if(file == null)
+            return;
+        try
+        {
+            connection = DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath());
+            try(Statement st = connection.createStatement())
+            {
+                st.executeUpdate("CREATE TABLE IF NOT EXISTS tracks (key TEXT PRIMARY KEY, track BLOB NOT NULL, created_at INTEGER NOT NULL)");
+            }
+            prune();
+        }
+        catch(SQLException ex)
+        {
+            LOG.warn("Could not open the track cache at " + file.toAbsolutePath() + ", only caching in memory", ex);
+            close();
+        }
+    }
+
+    /**
+     * @param key a key from {@link #canonicalize(String)} or {@link #searchKey(String)}
+     * @return the encoded tracks, or null if there is none or it has expired
+     */
+    public synchronized byte[] get(String key)
+    {
+        long now = System.currentTimeMillis();
+        Entry entry = memory.get(key);
+        if(entry == null && connection != null)
+        {
+            entry = read(key);
+            if(entry != null)
+                memory.put(key, entry);
+        }
+        if(entry == null)
+            return null;
+        if(now - entry.created > ttl)
+        {
+            memory.remove(key);
+            return null;
+        }
+        return entry.track;
+    }
+
+    /**
+     * Stores encoded tracks, unless there are already some for the key that
+     * have not expired. Entries are not refreshed by storing them again, so
+     * that what a source returns is looked up again at least once per TTL.
+     *
+     * @param key a key from {@link #canonicalize(String)} or {@link #searchKey(String)}
+     * @param track the encoded tracks
+     */
+    public synchronized void put(String key, byte[] track)
+    {
+        if(get(key) != null)
+            return;
+        Entry entry = new Entry(track, System.currentTimeMillis());
+        memory.put(key, entry);
+        if(connection != null)
+            write(key, entry);
+    }
+
+    /**
+     * @return how many entries are held in memory
+     */
+    public synchronized int size()
+    {
+        return memory.size();
+    }
+
+    public synchronized void close()
+    {
+        if(connection == null)
+            return;
+        try
+        {
+            connection.close();
+        }
+        catch(SQLException ignored) {}
+        connection = null;
+    }
+
+    private Entry read(String key)
+    {
+        try(PreparedStatement ps = connection.prepareStatement("SELECT track, created_at FROM tracks WHERE key=?"))
+        {
+            ps.setString(1, key);
+            try(ResultSet rs = ps.executeQuery())
+            {
+                if(rs.next())
+                    return new Entry(rs.getBytes(1), rs.getLong(2));
+            }
+        }
+        catch(SQLException ex)
+        {
+            LOG.warn("Failed to read from the track cache", ex);
+        }
+        return null;
+    }
+
+    private void write(String key, Entry entry)
+    {
+        try(PreparedStatement ps = connection.prepareStatement("INSERT OR REPLACE INTO tracks(key, track, created_at) VALUES(?,?,?)"))
+        {
+            ps.setString(1, key);
+            ps.setBytes(2, entry.track);
+            ps.setLong(3, entry.created);
+            ps.executeUpdate();
+            if(++writes % PRUNE_INTERVAL == 0)
+                prune();
+        }
+        catch(SQLException ex)
+        {
+            LOG.warn("Failed to write to the track cache", ex);
+        }
+    }
+
+    private void prune() throws SQLException
+    {
+        try(PreparedStatement ps = connection.prepareStatement("DELETE FROM tracks WHERE created_at<?"))
+        {
+            ps.setLong(1, System.currentTimeMillis() - ttl);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Turns the different ways of writing the same identifier into one key:
+     * every form of YouTube video link becomes {@code youtube:<id>}, and
+     * other links lose their fragment, tracking parameters and a default
+     * port. The {@code www.} and {@code m.} in front of a SoundCloud host
+     * are dropped too, since those hosts serve the same tracks; any other
+     * host is kept as it is, as is the scheme.
+     *
+     * @param identifier what is being loaded
+     * @return the key for it, or null if it should not be cached, such as
+     * searches, playlists and local files
+     */
+    public static String canonicalize(String identifier)
+    {
+        if(identifier == null)
+            return null;
+        String trimmed = identifier.trim();
+        if(trimmed.startsWith("<") && trimmed.endsWith(">"))
+            trimmed = trimmed.substring(1, trimmed.length() - 1);
+        URI uri;
+        try
+        {
+            uri = new URI(trimmed);
+        }
+        catch(URISyntaxException ex)
+        {
+            return null;
+        }
+        String scheme = uri.getScheme();
+        String host = uri.getHost();
+        if(host == null || scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https")))
+            return null;
+        scheme = scheme.toLowerCase(Locale.ROOT);
+        host = host.toLowerCase(Locale.ROOT);
+        for(String prefix: new String[]{"www.", "m."})
+            if(host.startsWith(prefix) && FOLDED_HOSTS.contains(host.substring(prefix.length())))
+                host = host.substring(prefix.length());
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        String query = uri.getRawQuery();
+        if(host.equals("youtube.com") || host.equals("music.youtube.com") || host.equals("youtube-nocookie.com") || host.equals("youtu.be"))
+            return youtube(host, path, query);
+        StringBuilder kept = new StringBuilder();
+        if(query != null)
+        {
+            for(String param: query.split("&"))
+            {
+                String name = param.split("=", 2)[0];
+                if(name.isEmpty() || name.equals("si") || name.equals("feature") || name.startsWith("utm_"))
+                    continue;
+                kept.append(kept.length() == 0 ? "?" : "&").append(param);
+            }
+        }
+        int port = uri.getPort();
+        boolean defaultPort = port < 0 || (scheme.equals("http") && port == 80) || (scheme.equals("https") && port == 443);
+        String userInfo = uri.getRawUserInfo();
+        return scheme + "://" + (userInfo == null ? "" : userInfo + "@") + host + (defaultPort ? "" : ":" + port) + path + kept;
+    }
+
+    /**
+     * Normalizes a search, so that searches differing only in case and
+     * spacing share a key
+     *
+     * @param identifier what is being loaded
+     * @return the key for the search, or null if it is not a search
+     */
+    public static String searchKey(String identifier)
+    {
+        if(identifier == null)
+            return null;
+        for(String prefix: SEARCH_PREFIXES)
+        {
+            if(identifier.regionMatches(true, 0, prefix, 0, prefix.length()))
+            {
+                String query = identifier.substring(prefix.length()).trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+                return query.isEmpty() ? null : prefix + query;
+            }
+        }
+        return null;
+    }
+
+    private static String youtube(String host, String path, String query)
+    {
+        String video = null;
+        if(query != null)
+        {
+            for(String param: query.split("&"))
+            {
+                String[] pair = param.split("=", 2);
+                // a link into a playlist loads the playlist, which is not cached
+                if(pair[0].equals("list"))
+                    return null;
+                if(pair[0].equals("v") && pair.length == 2)
+                    video = pair[1];
+            }
+        }
+        if(video == null)
+        {
+            String[] segments = path.split("/");
+            if(host.equals("youtu.be") && segments.length == 2)
+                video = segments[1];
+            else if(segments.length == 3 && (segments[1].equals("shorts") || segments[1].equals("embed") || segments[1].equals("live") || segments[1].equals("v")))
+                video = segments[2];
+        }
+        return video != null && VIDEO_ID.matcher(video).matches() ? "youtube:" + video : null;
+    }
+
+    private static class Entry
+    {
+        private final byte[] track;
+        private final long created;
+
+        private Entry(byte[] track, long created)
+        {
+            this.track = track;
+            this.created = created;
+        }
+    }
+}
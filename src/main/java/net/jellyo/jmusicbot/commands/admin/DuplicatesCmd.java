@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.commands.admin;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import com.jagrosh.jmusicbot.Bot;
+import com.jagrosh.jmusicbot.commands.AdminCommand;
+import com.jagrosh.jmusicbot.settings.Settings;
+
+/**
+ *
+ * @author Jellyo
+ */
+public class DuplicatesCmd extends AdminCommand
+{
+    public DuplicatesCmd(Bot bot)
+    {
+        this.name = "duplicates";
+        this.help = "allows or rejects tracks that are already playing or queued";
+        this.arguments = "[allow|reject]";
+        this.aliases = bot.getConfig().getAliases(this.name);
+    }
+
+    @Override
+    protected void execute(CommandEvent event)
+    {
+        String args = event.getArgs();
+        Settings settings = event.getClient().getSettingsFor(event.getGuild());
+        boolean value;
+        if(args.isEmpty())
+            value = !settings.isDuplicatesAllowed();
+        else if(args.equalsIgnoreCase("allow") || args.equalsIgnoreCase("on") || args.equalsIgnoreCase("true"))
+            value = true;
+        else if(args.equalsIgnoreCase("reject") || args.equalsIgnoreCase("off") || args.equalsIgnoreCase("false"))
+            value = false;
+        else
+        {
+            event.replyError("Valid options are `allow` or `reject` (or leave empty to toggle)");
+            return;
+        }
+        settings.setDuplicatesAllowed(value);
+        event.replySuccess(value
+                ? "Tracks can now be queued more than once"
+                : "Tracks that are already playing or queued will now be rejected");
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.commands.admin;
+
+import com.jagrosh.jdautilities.command.CommandEvent;
+import com.jagrosh.jmusicbot.Bot;
+import com.jagrosh.jmusicbot.BotConfig;
+import com.jagrosh.jmusicbot.commands.AdminCommand;
+import com.jagrosh.jmusicbot.settings.Settings;
+import com.jagrosh.jmusicbot.utils.TimeUtil;
+
+/**
+ *
+ * @author Jellyo
+ */
+public class QueueLimitCmd extends AdminCommand
+{
+    private final BotConfig config;
+
+    public QueueLimitCmd(Bot bot)
+    {
+        this.name = "queuelimit";
+        this.help = "sets server-specific queue limits";
+        this.arguments = "<entries|time> <value|none|default>";
+        this.aliases = bot.getConfig().getAliases(this.name);
+        this.config = bot.getConfig();
+    }
+
+    @Override
+    protected void execute(CommandEvent event)
+    {
+        Settings s = event.getClient().getSettingsFor(event.getGuild());
+        String[] parts = event.getArgs().trim().split("\\s+", 2);
+        if(parts.length < 2)
+        {
+            event.reply("Entries per user: " + describeEntries(s.getMaxUserEntries())
+                    + "\nQueue length: " + describeTime(s.getMaxQueueSeconds())
+                    + "\nUse `" + event.getClient().getPrefix() + name + " " + arguments + "` to change them.");
+            return;
+        }
+        String value = parts[1].toLowerCase();
+        switch(parts[0].toLowerCase())
+        {
+            case "entries":
+            {
+                int entries;
+                if(value.equals("default"))
+                    entries = -1;
+                else if(value.equals("none"))
+                    entries = 0;
+                else
+                {
+                    try
+                    {
+                        entries = Integer.parseInt(value);
+                    }
+                    catch(NumberFormatException ex)
+                    {
+                        entries = 0;
+                    }
+                    if(entries < 1)
+                    {
+                        event.replyError("Please include a positive number of entries, `none` or `default`.");
+                        return;
+                    }
+                }
+                s.setMaxUserEntries(entries);
+                event.replySuccess("Entries per user are now limited to: " + describeEntries(entries));
+                break;
+            }
+            case "time":
+            {
+                long seconds;
+                if(value.equals("default"))
+                    seconds = -1;
+                else if(value.equals("none"))
+                    seconds = 0;
+                else
+                {
+                    long millis = TimeUtil.parseColonTime(value);
+                    if(millis == -1)
+                        millis = TimeUtil.parseUnitTime(value);
+                    seconds = millis / 1000;
+                    if(seconds < 1)
+                    {
+                        event.replyError("Please include a length such as `2h` or `90:00`, `none` or `default`.");
+                        return;
+                    }
+                }
+                s.setMaxQueueSeconds(seconds);
+                event.replySuccess("The queue length is now limited to: " + describeTime(seconds));
+                break;
+            }
+            default:
+                event.replyError("Please choose `entries` or `time`.");
+        }
+    }
+
+    private String describeEntries(int entries)
+    {
+        if(entries < 0)
+            return config.getMaxUserEntries() > 0 ? "`" + config.getMaxUserEntries() + "` (default)" : "None (default)";
+        return entries == 0 ? "None" : "`" + entries + "`";
+    }
+
+    private String describeTime(long seconds)
+    {
+        if(seconds < 0)
+            return config.getMaxQueueSeconds() > 0 ? "`" + TimeUtil.formatTime(config.getMaxQueueSeconds() * 1000) + "` (default)" : "None (default)";
+        return seconds == 0 ? "None" : "`" + TimeUtil.formatTime(seconds * 1000) + "`";
+    }
+}
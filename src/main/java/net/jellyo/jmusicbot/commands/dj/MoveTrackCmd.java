@@ -7,6 +7,7 @@ import com.jagrosh.jmusicbot.audio.AudioHandler;
 import com.jagrosh.jmusicbot.audio.QueuedTrack;
 import com.jagrosh.jmusicbot.commands.DJCommand;
 import com.jagrosh.jmusicbot.queue.AbstractQueue;
+import com.jagrosh.jmusicbot.queue.QueueHolder;
 
 /**
  * Command that provides users the ability to move a track in the playlist.
@@ -57,22 +58,27 @@ public class MoveTrackCmd extends DJCommand
 
         // Validate that from and to are available
         AudioHandler handler = (AudioHandler) event.getGuild().getAudioManager().getSendingHandler();
-        AbstractQueue<QueuedTrack> queue = handler.getQueue();
-        if (isUnavailablePosition(queue, from))
+        QueueHolder<QueuedTrack> queues = handler.getQueueHolder();
+        QueuedTrack track;
+        synchronized(queues)
         {
-            String reply = String.format("`%d` is not a valid position in the queue!", from);
-            event.replyError(reply);
-            return;
-        }
-        if (isUnavailablePosition(queue, to))
-        {
-            String reply = String.format("`%d` is not a valid position in the queue!", to);
-            event.replyError(reply);
-            return;
-        }
+            AbstractQueue<QueuedTrack> queue = queues.get();
+            if (isUnavailablePosition(queue, from))
+            {
+                String reply = String.format("`%d` is not a valid position in the queue!", from);
+                event.replyError(reply);
+                return;
+            }
+            if (isUnavailablePosition(queue, to))
+            {
+                String reply = String.format("`%d` is not a valid position in the queue!", to);
+                event.replyError(reply);
+                return;
+            }
 
-        // Move the track
-        QueuedTrack track = queue.moveItem(from - 1, to - 1);
+            // Move the track
+            track = queue.moveItem(from - 1, to - 1);
+        }
         String trackTitle = track.getTrack().getInfo().title;
         String reply = String.format("Moved **%s** from position `%d` to `%d`.", trackTitle, from, to);
         event.replySuccess(reply);
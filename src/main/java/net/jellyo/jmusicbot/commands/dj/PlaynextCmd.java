@@ -85,9 +85,16 @@ public class PlaynextCmd extends DJCommand
                 return;
             }
             AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-            int pos = handler.addTrackToFront(new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event)))+1;
+            QueuedTrack qtrack = new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event));
+            AudioHandler.AddResult added = handler.addTrackToFront(qtrack);
+            if(added.getRejection() != null)
+            {
+                m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" **"+track.getInfo().title+"** was not added because "+added.getRejection())).queue();
+                return;
+            }
+            int pos = added.getPosition()+1;
             String addMsg = FormatUtil.filter(event.getClient().getSuccess()+" Added **"+track.getInfo().title
-                    +"** (`"+ TimeUtil.formatTime(track.getDuration())+"`) "+(pos==0?"to begin playing":" to the queue at position "+pos));
+                    +"** (`"+ TimeUtil.formatTime(track.getDuration())+"`) "+(pos==0?"to begin playing":" to the queue at position "+pos+" (plays in `"+TimeUtil.formatTime(handler.getTimeUntil(pos-1))+"`)"));
             m.editMessage(addMsg).queue();
         }
         
@@ -18,7 +18,10 @@ package com.jagrosh.jmusicbot.commands.dj;
 import com.jagrosh.jdautilities.command.CommandEvent;
 import com.jagrosh.jmusicbot.Bot;
 import com.jagrosh.jmusicbot.audio.AudioHandler;
+import com.jagrosh.jmusicbot.audio.QueuedTrack;
 import com.jagrosh.jmusicbot.commands.DJCommand;
+import com.jagrosh.jmusicbot.queue.AbstractQueue;
+import com.jagrosh.jmusicbot.queue.QueueHolder;
 
 /**
  *
@@ -50,13 +53,20 @@ public class SkiptoCmd extends DJCommand
             return;
         }
         AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-        if(index<1 || index>handler.getQueue().size())
+        QueueHolder<QueuedTrack> queues = handler.getQueueHolder();
+        String title;
+        synchronized(queues)
         {
-            event.reply(event.getClient().getError()+" Position must be a valid integer between 1 and "+handler.getQueue().size()+"!");
-            return;
+            AbstractQueue<QueuedTrack> queue = queues.get();
+            if(index<1 || index>queue.size())
+            {
+                event.reply(event.getClient().getError()+" Position must be a valid integer between 1 and "+queue.size()+"!");
+                return;
+            }
+            queue.skip(index-1);
+            title = queue.get(0).getTrack().getInfo().title;
         }
-        handler.getQueue().skip(index-1);
-        event.reply(event.getClient().getSuccess()+" Skipped to **"+handler.getQueue().get(0).getTrack().getInfo().title+"**");
+        event.reply(event.getClient().getSuccess()+" Skipped to **"+title+"**");
         handler.getPlayer().stopTrack();
     }
 }
@@ -32,6 +32,8 @@ import com.jagrosh.jmusicbot.commands.DJCommand;
 import com.jagrosh.jmusicbot.commands.MusicCommand;
 import com.jagrosh.jmusicbot.playlist.PlaylistLoader.Playlist;
 import com.jagrosh.jmusicbot.utils.FormatUtil;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Message;
@@ -45,6 +47,8 @@ public class PlayCmd extends MusicCommand
 {
     private final static String LOAD = "\uD83D\uDCE5"; // 📥
     private final static String CANCEL = "\uD83D\uDEAB"; // 🚫
+    // how often, in milliseconds, the playlist command shows how far it has got
+    private final static long PROGRESS_INTERVAL = 3000;
     
     private final String loadingEmoji;
     
@@ -97,6 +101,10 @@ public class PlayCmd extends MusicCommand
         private final Message m;
         private final CommandEvent event;
         private final boolean ytsearch;
+        // why the last playlist was cut short, if it was
+        private String limit;
+        // how many tracks of the last playlist were left out as too long or as duplicates
+        private int tooLong, duplicates;
         
         private ResultHandler(Message m, CommandEvent event, boolean ytsearch)
         {
@@ -114,9 +122,16 @@ public class PlayCmd extends MusicCommand
                 return;
             }
             AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-            int pos = handler.addTrack(new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event)))+1;
+            QueuedTrack qtrack = new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event));
+            AudioHandler.AddResult added = handler.addTrack(qtrack);
+            if(added.getRejection() != null)
+            {
+                m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" **"+track.getInfo().title+"** was not added because "+added.getRejection())).queue();
+                return;
+            }
+            int pos = added.getPosition()+1;
             String addMsg = FormatUtil.filter(event.getClient().getSuccess()+" Added **"+track.getInfo().title
-                    +"** (`"+ TimeUtil.formatTime(track.getDuration())+"`) "+(pos==0?"to begin playing":" to the queue at position "+pos));
+                    +"** (`"+ TimeUtil.formatTime(track.getDuration())+"`) "+(pos==0?"to begin playing":" to the queue at position "+pos+" (plays in `"+TimeUtil.formatTime(handler.getTimeUntil(pos-1))+"`)"));
             if(playlist==null || !event.getSelfMember().hasPermission(event.getTextChannel(), Permission.MESSAGE_ADD_REACTION))
                 m.editMessage(addMsg).queue();
             else
@@ -129,7 +144,7 @@ public class PlayCmd extends MusicCommand
                         .setAction(re ->
                         {
                             if(re.getName().equals(LOAD))
-                                m.editMessage(addMsg+"\n"+event.getClient().getSuccess()+" Loaded **"+loadPlaylist(playlist, track)+"** additional tracks!").queue();
+                                m.editMessage(addMsg+"\n"+event.getClient().getSuccess()+" Loaded **"+loadPlaylist(playlist, track)+"** additional tracks!"+getLimitNote()).queue();
                             else
                                 m.editMessage(addMsg).queue();
                         }).setFinalAction(m ->
@@ -141,16 +156,26 @@ public class PlayCmd extends MusicCommand
         
         private int loadPlaylist(AudioPlaylist playlist, AudioTrack exclude)
         {
-            int[] count = {0};
+            List<QueuedTrack> tracks = new ArrayList<>();
             playlist.getTracks().stream().forEach((track) -> {
                 if(!bot.getConfig().isTooLong(track) && !track.equals(exclude))
-                {
-                    AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-                    handler.addTrack(new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event)));
-                    count[0]++;
-                }
+                    tracks.add(new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event)));
             });
-            return count[0];
+            tooLong = playlist.getTracks().size() - tracks.size() - (exclude == null ? 0 : 1);
+            AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
+            int loaded = tracks.size();
+            int count = handler.addTracks(tracks);
+            duplicates = loaded - tracks.size();
+            limit = count < tracks.size() ? handler.checkLimits(tracks.get(count)) : null;
+            return count;
+        }
+        
+        private String getLimitNote()
+        {
+            String note = duplicates == 0 ? "" : "\n"+event.getClient().getWarning()+" **"+duplicates+"** tracks were already playing or queued and have been skipped.";
+            if(limit != null)
+                note += "\n"+event.getClient().getWarning()+" The remaining tracks were not added because "+limit;
+            return FormatUtil.filter(note);
         }
         
         @Override
@@ -180,6 +205,14 @@ public class PlayCmd extends MusicCommand
                     m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" The playlist "+(playlist.getName()==null ? "" : "(**"+playlist.getName()
                             +"**) ")+" could not be loaded or contained 0 entries")).queue();
                 }
+                else if(count==0 && limit!=null)
+                {
+                    m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" No entries were added because "+limit)).queue();
+                }
+                else if(count==0 && duplicates>0)
+                {
+                    m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" No entries were added because they were all already playing or queued")).queue();
+                }
                 else if(count==0)
                 {
                     m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" All entries in this playlist "+(playlist.getName()==null ? "" : "(**"+playlist.getName()
@@ -190,8 +223,8 @@ public class PlayCmd extends MusicCommand
                     m.editMessage(FormatUtil.filter(event.getClient().getSuccess()+" Found "
                             +(playlist.getName()==null?"a playlist":"playlist **"+playlist.getName()+"**")+" with `"
                             + playlist.getTracks().size()+"` entries; added to the queue!"
-                            + (count<playlist.getTracks().size() ? "\n"+event.getClient().getWarning()+" Tracks longer than the allowed maximum (`"
-                            + bot.getConfig().getMaxTime()+"`) have been omitted." : ""))).queue();
+                            + (tooLong>0 ? "\n"+event.getClient().getWarning()+" Tracks longer than the allowed maximum (`"
+                            + bot.getConfig().getMaxTime()+"`) have been omitted." : "")) + getLimitNote()).queue();
                 }
             }
         }
@@ -247,10 +280,42 @@ public class PlayCmd extends MusicCommand
             event.getChannel().sendMessage(loadingEmoji+" Loading playlist **"+event.getArgs()+"**... ("+playlist.getItems().size()+" items)").queue(m -> 
             {
                 AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-                playlist.loadTracks(bot.getPlayerManager(), (at)->handler.addTrack(new QueuedTrack(at, RequestMetadata.fromResultHandler(at, event))), () -> {
+                int[] omitted = {0}, duplicates = {0};
+                String[] limit = {null};
+                long[] lastProgress = {System.currentTimeMillis()};
+                playlist.loadTracks(bot.getPlayerManager(), (tracks) -> 
+                {
+                    List<QueuedTrack> qtracks = new ArrayList<>(tracks.size());
+                    tracks.forEach(at -> qtracks.add(new QueuedTrack(at, RequestMetadata.fromResultHandler(at, event))));
+                    int loaded = qtracks.size();
+                    int count = handler.addTracks(qtracks);
+                    duplicates[0] += loaded - qtracks.size();
+                    if(count < qtracks.size())
+                    {
+                        omitted[0] += qtracks.size() - count;
+                        String reason = handler.checkLimits(qtracks.get(count));
+                        if(reason != null)
+                            limit[0] = reason;
+                    }
+                }, (resolved) -> 
+                {
+                    // edits are rate limited, so only show progress every so often
+                    long now = System.currentTimeMillis();
+                    if(resolved == playlist.getItems().size() || now - lastProgress[0] < PROGRESS_INTERVAL)
+                        return;
+                    lastProgress[0] = now;
+                    m.editMessage(FormatUtil.filter(loadingEmoji+" Loading playlist **"+event.getArgs()+"**... ("
+                            +resolved+"/"+playlist.getItems().size()+" loaded)")).queue();
+                }, () -> {
                     StringBuilder builder = new StringBuilder(playlist.getTracks().isEmpty() 
                             ? event.getClient().getWarning()+" No tracks were loaded!" 
                             : event.getClient().getSuccess()+" Loaded **"+playlist.getTracks().size()+"** tracks!");
+                    if(duplicates[0] > 0)
+                        builder.append("\n").append(event.getClient().getWarning()).append(" **").append(duplicates[0])
+                                .append("** tracks were already playing or queued and have been skipped.");
+                    if(omitted[0] > 0)
+                        builder.append("\n").append(event.getClient().getWarning()).append(" **").append(omitted[0])
+                                .append("** tracks were not added because ").append(limit[0] == null ? "the queue is full" : limit[0]);
                     if(!playlist.getErrors().isEmpty())
                         builder.append("\nThe following tracks failed to load:");
                     playlist.getErrors().forEach(err -> builder.append("\n`[").append(err.getIndex()+1).append("]` **").append(err.getItem()).append("**: ").append(err.getReason()));
@@ -12,6 +12,8 @@ import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import java.util.ArrayList;
+import java.util.List;
 import net.dv8tion.jda.api.entities.Message;
 
 /**
@@ -54,6 +56,10 @@ public class PlaytopCmd extends MusicCommand
         private final Message m;
         private final CommandEvent event;
         private final boolean ytsearch;
+        // why the last playlist was cut short, if it was
+        private String limit;
+        // how many tracks of the last playlist were left out as too long or as duplicates
+        private int tooLong, duplicates;
 
         private ResultHandler(Message m, CommandEvent event, boolean ytsearch)
         {
@@ -71,34 +77,33 @@ public class PlaytopCmd extends MusicCommand
                 return;
             }
             AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-            int pos = handler.addTrackToFront(new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event)))+1;
+            QueuedTrack qtrack = new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event));
+            AudioHandler.AddResult added = handler.addTrackToFront(qtrack);
+            if(added.getRejection() != null)
+            {
+                m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" **"+track.getInfo().title+"** was not added because "+added.getRejection())).queue();
+                return;
+            }
+            int pos = added.getPosition()+1;
             String addMsg = FormatUtil.filter(event.getClient().getSuccess()+" Added **"+track.getInfo().title
-                    +"** (`"+ TimeUtil.formatTime(track.getDuration())+"`) "+(pos==0?"to begin playing":" to the top of the queue"));
+                    +"** (`"+ TimeUtil.formatTime(track.getDuration())+"`) "+(pos==0?"to begin playing":" to the top of the queue (plays in `"+TimeUtil.formatTime(handler.getTimeUntil(0))+"`)"));
             m.editMessage(addMsg).queue();
         }
 
         private int loadPlaylist(AudioPlaylist playlist)
         {
-            int count = 0;
-            AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-            boolean first = handler.getPlayer().getPlayingTrack()==null;
-            int index = 0;
+            List<QueuedTrack> tracks = new ArrayList<>();
             for(AudioTrack track : playlist.getTracks())
             {
-                if(bot.getConfig().isTooLong(track))
-                    continue;
-                if(first)
-                {
-                    handler.getPlayer().playTrack(track);
-                    first = false;
-                }
-                else
-                {
-                    handler.getQueue().addAt(index, new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event)));
-                    index++;
-                }
-                count++;
+                if(!bot.getConfig().isTooLong(track))
+                    tracks.add(new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event)));
             }
+            tooLong = playlist.getTracks().size() - tracks.size();
+            AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
+            int loaded = tracks.size();
+            int count = handler.addTracksToFront(tracks);
+            duplicates = loaded - tracks.size();
+            limit = count < tracks.size() ? handler.checkLimits(tracks.get(count)) : null;
             return count;
         }
 
@@ -119,13 +124,23 @@ public class PlaytopCmd extends MusicCommand
             else
             {
                 int count = loadPlaylist(playlist);
-                if(count==0)
+                if(count==0 && limit!=null)
+                {
+                    m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" No entries were added because "+limit)).queue();
+                }
+                else if(count==0 && duplicates>0)
+                {
+                    m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" No entries were added because they were all already playing or queued")).queue();
+                }
+                else if(count==0)
                 {
                     m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" All entries in this playlist "+(playlist.getName()==null ? "" : "(**"+playlist.getName()+"**) ")+"were longer than the allowed maximum (`"+bot.getConfig().getMaxTime()+"`)")).queue();
                 }
                 else
                 {
-                    m.editMessage(FormatUtil.filter(event.getClient().getSuccess()+" Added `"+count+"` tracks from "+(playlist.getName()==null?"the playlist":"playlist **"+playlist.getName()+"**")+" to the top of the queue!"+(count<playlist.getTracks().size()?"\n"+event.getClient().getWarning()+" Tracks longer than the allowed maximum (`"+bot.getConfig().getMaxTime()+"`) have been omitted.":""))).queue();
+                    m.editMessage(FormatUtil.filter(event.getClient().getSuccess()+" Added `"+count+"` tracks from "+(playlist.getName()==null?"the playlist":"playlist **"+playlist.getName()+"**")+" to the top of the queue!"+(tooLong>0?"\n"+event.getClient().getWarning()+" Tracks longer than the allowed maximum (`"+bot.getConfig().getMaxTime()+"`) have been omitted.":"")
+                            +(duplicates==0?"":"\n"+event.getClient().getWarning()+" **"+duplicates+"** tracks were already playing or queued and have been skipped.")
+                            +(limit==null?"":"\n"+event.getClient().getWarning()+" The remaining tracks were not added because "+limit))).queue();
                 }
             }
         }
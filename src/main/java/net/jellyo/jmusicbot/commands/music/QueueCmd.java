@@ -15,14 +15,14 @@
  */
 package com.jagrosh.jmusicbot.commands.music;
 
-import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import com.jagrosh.jdautilities.command.CommandEvent;
-import com.jagrosh.jdautilities.menu.Paginator;
 import com.jagrosh.jmusicbot.Bot;
 import com.jagrosh.jmusicbot.audio.AudioHandler;
 import com.jagrosh.jmusicbot.audio.QueuedTrack;
 import com.jagrosh.jmusicbot.commands.MusicCommand;
+import com.jagrosh.jmusicbot.queue.QueueSnapshot;
 import com.jagrosh.jmusicbot.settings.QueueType;
 import com.jagrosh.jmusicbot.settings.RepeatMode;
 import com.jagrosh.jmusicbot.settings.Settings;
@@ -31,7 +31,6 @@ import com.jagrosh.jmusicbot.utils.TimeUtil;
 import net.dv8tion.jda.api.MessageBuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Message;
-import net.dv8tion.jda.api.exceptions.PermissionException;
 
 /**
  *
@@ -39,7 +38,8 @@ import net.dv8tion.jda.api.exceptions.PermissionException;
  */
 public class QueueCmd extends MusicCommand 
 {
-    private final Paginator.Builder builder;
+    // formatted rows of the last snapshot shown in each guild
+    private final Map<Long, Rows> rows = new ConcurrentHashMap<>();
     
     public QueueCmd(Bot bot)
     {
@@ -50,16 +50,6 @@ public class QueueCmd extends MusicCommand
         this.aliases = bot.getConfig().getAliases(this.name);
         this.bePlaying = true;
         this.botPermissions = new Permission[]{Permission.MESSAGE_ADD_REACTION,Permission.MESSAGE_EMBED_LINKS};
-        builder = new Paginator.Builder()
-                .setColumns(1)
-                .setFinalAction(m -> {try{m.clearReactions().queue();}catch(PermissionException ignore){}})
-                .setItemsPerPage(10)
-                .waitOnSinglePage(false)
-                .useNumberedItems(true)
-                .showPageNumbers(true)
-                .wrapPageEnds(true)
-                .setEventWaiter(bot.getWaiter())
-                .setTimeout(1, TimeUnit.MINUTES);
     }
 
     @Override
@@ -72,8 +62,8 @@ public class QueueCmd extends MusicCommand
         }
         catch(NumberFormatException ignore){}
         AudioHandler ah = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-        List<QueuedTrack> list = ah.getQueue().getList();
-        if(list.isEmpty())
+        QueueSnapshot<QueuedTrack> snapshot = ah.getQueue().getSnapshot();
+        if(snapshot.isEmpty())
         {
             Message nowp = ah.getNowPlaying(event.getJDA());
             Message nonowp = ah.getNoMusicPlaying(event.getJDA());
@@ -87,21 +77,16 @@ public class QueueCmd extends MusicCommand
             });
             return;
         }
-        String[] songs = new String[list.size()];
-        long total = 0;
-        for(int i=0; i<list.size(); i++)
-        {
-            total += list.get(i).getTrack().getDuration();
-            songs[i] = list.get(i).toString();
-        }
+        Rows cache = rows.compute(event.getGuild().getIdLong(),
+                (id, cached) -> cached != null && cached.snapshot.getVersion() == snapshot.getVersion() ? cached : new Rows(snapshot));
         Settings settings = event.getClient().getSettingsFor(event.getGuild());
-        long fintotal = total;
-        builder.setText((i1,i2) -> getQueueTitle(ah, event.getClient().getSuccess(), songs.length, fintotal, settings.getRepeatMode(), settings.getQueueType()))
-                .setItems(songs)
-                .setUsers(event.getAuthor())
+        long total = snapshot.getTotalDuration();
+        new QueuePaginator(bot.getWaiter())
+                .setText((i1,i2) -> getQueueTitle(ah, event.getClient().getSuccess(), snapshot.size(), total, settings.getRepeatMode(), settings.getQueueType()))
+                .setItems(snapshot.size(), cache::get)
+                .setUser(event.getAuthor())
                 .setColor(event.getSelfMember().getColor())
-                ;
-        builder.build().paginate(event.getChannel(), pagenum);
+                .paginate(event.getChannel(), pagenum);
     }
     
     private String getQueueTitle(AudioHandler ah, String success, int songslength, long total, RepeatMode repeatmode, QueueType queueType)
@@ -117,4 +102,27 @@ public class QueueCmd extends MusicCommand
                 .append("| ").append(queueType.getEmoji()).append(" `").append(queueType.getUserFriendlyName()).append('`')
                 .append(repeatmode.getEmoji() != null ? " | "+repeatmode.getEmoji() : "").toString());
     }
+    
+    /**
+     * Rows of one snapshot, formatted the first time they are shown
+     */
+    private static class Rows
+    {
+        private final QueueSnapshot<QueuedTrack> snapshot;
+        private final String[] rows;
+
+        private Rows(QueueSnapshot<QueuedTrack> snapshot)
+        {
+            this.snapshot = snapshot;
+            this.rows = new String[snapshot.size()];
+        }
+
+        private String get(int index)
+        {
+            String row = rows[index];
+            if(row == null)
+                rows[index] = row = snapshot.get(index).toString();
+            return row;
+        }
+    }
 }
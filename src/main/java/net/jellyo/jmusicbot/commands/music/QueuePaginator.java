@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.commands.music;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+import com.jagrosh.jdautilities.commons.waiter.EventWaiter;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.MessageBuilder;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import net.dv8tion.jda.api.exceptions.PermissionException;
+
+/**
+ * A paginator that looks like the JDA-Utilities one, but asks for the rows of
+ * a page only when that page is shown, instead of needing every row up front.
+ *
+ * @author Jellyo
+ */
+public class QueuePaginator
+{
+    private static final String LEFT = "\u25C0";
+    private static final String STOP = "\u23F9";
+    private static final String RIGHT = "\u25B6";
+    private static final int ITEMS_PER_PAGE = 10;
+
+    private final EventWaiter waiter;
+    private BiFunction<Integer,Integer,String> text = (page, pages) -> null;
+    private IntFunction<String> items;
+    private int itemCount;
+    private User user;
+    private Color color;
+
+    public QueuePaginator(EventWaiter waiter)
+    {
+        this.waiter = waiter;
+    }
+
+    public QueuePaginator setText(BiFunction<Integer,Integer,String> text)
+    {
+        this.text = text;
+        return this;
+    }
+
+    /**
+     * @param count the number of rows
+     * @param items renders the row at the given index; only called for rows
+     * on the page being shown
+     * @return this
+     */
+    public QueuePaginator setItems(int count, IntFunction<String> items)
+    {
+        this.itemCount = count;
+        this.items = items;
+        return this;
+    }
+
+    public QueuePaginator setUser(User user)
+    {
+        this.user = user;
+        return this;
+    }
+
+    public QueuePaginator setColor(Color color)
+    {
+        this.color = color;
+        return this;
+    }
+
+    public void paginate(MessageChannel channel, int pageNum)
+    {
+        int pages = getPageCount();
+        int page = Math.max(1, Math.min(pageNum, pages));
+        channel.sendMessage(render(page, pages)).queue(m ->
+        {
+            if(pages > 1)
+            {
+                m.addReaction(LEFT).queue();
+                m.addReaction(STOP).queue();
+                m.addReaction(RIGHT).queue(v -> waitForReaction(m, page), t -> waitForReaction(m, page));
+            }
+            else
+                finish(m);
+        });
+    }
+
+    private void waitForReaction(Message message, int page)
+    {
+        waiter.waitForEvent(MessageReactionAddEvent.class, e -> e.getMessageIdLong()==message.getIdLong()
+                && e.getUserIdLong()==user.getIdLong() && e.getReactionEmote().isEmoji()
+                && (LEFT.equals(e.getReactionEmote().getName()) || STOP.equals(e.getReactionEmote().getName())
+                    || RIGHT.equals(e.getReactionEmote().getName())),
+                e ->
+                {
+                    String name = e.getReactionEmote().getName();
+                    if(STOP.equals(name))
+                    {
+                        finish(message);
+                        return;
+                    }
+                    int pages = getPageCount();
+                    int next;
+                    if(LEFT.equals(name))
+                        next = page == 1 ? pages : page - 1;
+                    else
+                        next = page == pages ? 1 : page + 1;
+                    try
+                    {
+                        if(e.getUser() != null)
+                            e.getReaction().removeReaction(e.getUser()).queue();
+                    }
+                    catch(PermissionException ignore) {}
+                    message.editMessage(render(next, pages)).queue(m -> waitForReaction(m, next));
+                }, 1, TimeUnit.MINUTES, () -> finish(message));
+    }
+
+    private Message render(int page, int pages)
+    {
+        StringBuilder sb = new StringBuilder();
+        int end = Math.min(itemCount, page * ITEMS_PER_PAGE);
+        for(int i = (page - 1) * ITEMS_PER_PAGE; i < end; i++)
+            sb.append("\n`").append(i + 1).append(".` ").append(items.apply(i));
+        MessageBuilder mb = new MessageBuilder().setEmbeds(new EmbedBuilder()
+                .setColor(color)
+                .setDescription(sb.toString())
+                .setFooter("Page "+page+"/"+pages, null)
+                .build());
+        String content = text.apply(page, pages);
+        if(content != null)
+            mb.setContent(content);
+        return mb.build();
+    }
+
+    private int getPageCount()
+    {
+        return Math.max(1, (itemCount + ITEMS_PER_PAGE - 1) / ITEMS_PER_PAGE);
+    }
+
+    private void finish(Message message)
+    {
+        try
+        {
+            message.clearReactions().queue();
+        }
+        catch(PermissionException ignore) {}
+    }
+}
@@ -20,6 +20,8 @@ import com.jagrosh.jmusicbot.Bot;
 import com.jagrosh.jmusicbot.audio.AudioHandler;
 import com.jagrosh.jmusicbot.audio.QueuedTrack;
 import com.jagrosh.jmusicbot.commands.MusicCommand;
+import com.jagrosh.jmusicbot.queue.AbstractQueue;
+import com.jagrosh.jmusicbot.queue.QueueHolder;
 import com.jagrosh.jmusicbot.settings.Settings;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.User;
@@ -52,7 +54,11 @@ public class RemoveCmd extends MusicCommand
         }
         if(event.getArgs().equalsIgnoreCase("all"))
         {
-            int count = handler.getQueue().removeAll(event.getAuthor().getIdLong());
+            int count;
+            synchronized(handler.getQueueHolder())
+            {
+                count = handler.getQueue().removeAll(event.getAuthor().getIdLong());
+            }
             if(count==0)
                 event.replyWarning("You don't have any songs in the queue!");
             else
@@ -65,24 +71,32 @@ public class RemoveCmd extends MusicCommand
         } catch(NumberFormatException e) {
             pos = 0;
         }
-        if(pos<1 || pos>handler.getQueue().size())
-        {
-            event.replyError("Position must be a valid integer between 1 and "+handler.getQueue().size()+"!");
-            return;
-        }
         Settings settings = event.getClient().getSettingsFor(event.getGuild());
         boolean isDJ = event.getMember().hasPermission(Permission.MANAGE_SERVER);
         if(!isDJ)
             isDJ = event.getMember().getRoles().contains(settings.getRole(event.getGuild()));
-        QueuedTrack qt = handler.getQueue().get(pos-1);
-        if(qt.getIdentifier()==event.getAuthor().getIdLong())
+        QueueHolder<QueuedTrack> queues = handler.getQueueHolder();
+        QueuedTrack qt;
+        boolean own;
+        synchronized(queues)
+        {
+            AbstractQueue<QueuedTrack> queue = queues.get();
+            if(pos<1 || pos>queue.size())
+            {
+                event.replyError("Position must be a valid integer between 1 and "+queue.size()+"!");
+                return;
+            }
+            qt = queue.get(pos-1);
+            own = qt.getIdentifier()==event.getAuthor().getIdLong();
+            if(own || isDJ)
+                queue.remove(pos-1);
+        }
+        if(own)
         {
-            handler.getQueue().remove(pos-1);
             event.replySuccess("Removed **"+qt.getTrack().getInfo().title+"** from the queue");
         }
         else if(isDJ)
         {
-            handler.getQueue().remove(pos-1);
             User u;
             try {
                 u = event.getJDA().getUserById(qt.getIdentifier());
@@ -94,10 +94,17 @@ public class SearchCmd extends MusicCommand
                 return;
             }
             AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-            int pos = handler.addTrack(new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event)))+1;
+            QueuedTrack qtrack = new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event));
+            AudioHandler.AddResult added = handler.addTrack(qtrack);
+            if(added.getRejection() != null)
+            {
+                m.editMessage(FormatUtil.filter(event.getClient().getWarning()+" **"+track.getInfo().title+"** was not added because "+added.getRejection())).queue();
+                return;
+            }
+            int pos = added.getPosition()+1;
             m.editMessage(FormatUtil.filter(event.getClient().getSuccess()+" Added **"+track.getInfo().title
                     +"** (`"+ TimeUtil.formatTime(track.getDuration())+"`) "+(pos==0 ? "to begin playing"
-                        : " to the queue at position "+pos))).queue();
+                        : " to the queue at position "+pos+" (plays in `"+TimeUtil.formatTime(handler.getTimeUntil(pos-1))+"`)"))).queue();
         }
 
         @Override
@@ -116,10 +123,17 @@ public class SearchCmd extends MusicCommand
                             return;
                         }
                         AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-                        int pos = handler.addTrack(new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event)))+1;
+                        QueuedTrack qtrack = new QueuedTrack(track, RequestMetadata.fromResultHandler(track, event));
+                        AudioHandler.AddResult added = handler.addTrack(qtrack);
+                        if(added.getRejection() != null)
+                        {
+                            event.replyWarning(FormatUtil.filter("**"+track.getInfo().title+"** was not added because "+added.getRejection()));
+                            return;
+                        }
+                        int pos = added.getPosition()+1;
                         event.replySuccess("Added **" + FormatUtil.filter(track.getInfo().title)
                                 + "** (`" + TimeUtil.formatTime(track.getDuration()) + "`) " + (pos==0 ? "to begin playing" 
-                                    : " to the queue at position "+pos));
+                                    : " to the queue at position "+pos+" (plays in `"+TimeUtil.formatTime(handler.getTimeUntil(pos-1))+"`)"));
                     })
                     .setCancel((msg) -> {})
                     .setUsers(event.getAuthor())
@@ -40,7 +40,11 @@ public class ShuffleCmd extends MusicCommand
     public void doCommand(CommandEvent event) 
     {
         AudioHandler handler = (AudioHandler)event.getGuild().getAudioManager().getSendingHandler();
-        int s = handler.getQueue().shuffle(event.getAuthor().getIdLong());
+        int s;
+        synchronized(handler.getQueueHolder())
+        {
+            s = handler.getQueue().shuffle(event.getAuthor().getIdLong());
+        }
         switch (s) 
         {
             case 0:
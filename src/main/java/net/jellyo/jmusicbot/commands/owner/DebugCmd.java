@@ -18,12 +18,19 @@ package com.jagrosh.jmusicbot.commands.owner;
 import com.jagrosh.jdautilities.command.CommandEvent;
 import com.jagrosh.jdautilities.commons.JDAUtilitiesInfo;
 import com.jagrosh.jmusicbot.Bot;
+import com.jagrosh.jmusicbot.audio.AudioHandler;
+import com.jagrosh.jmusicbot.audio.AudioMetrics;
+import com.jagrosh.jmusicbot.audio.AutoplaylistStarter;
+import com.jagrosh.jmusicbot.audio.LoadScheduler;
 import com.jagrosh.jmusicbot.commands.OwnerCommand;
 import com.jagrosh.jmusicbot.utils.OtherUtil;
 import com.sedmelluq.discord.lavaplayer.tools.PlayerLibrary;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
 import net.dv8tion.jda.api.JDAInfo;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.ChannelType;
+import net.dv8tion.jda.api.managers.AudioManager;
 
 /**
  *
@@ -71,7 +78,47 @@ public class DebugCmd extends OwnerCommand
         long used = total - (Runtime.getRuntime().freeMemory() / 1024 / 1024);
         sb.append("\n\nRuntime Information:")
                 .append("\n  Total Memory = ").append(total)
-                .append("\n  Used Memory = ").append(used);
+                .append("\n  Used Memory = ").append(used)
+                .append("\n  System Load Average = ").append(ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage());
+        for(GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans())
+            sb.append("\n  GC ").append(gc.getName()).append(" = ").append(gc.getCollectionCount())
+                    .append(" collections, ").append(gc.getCollectionTime()).append("ms");
+        sb.append("\n\nLoader Information:");
+        LoadScheduler scheduler = bot.getPlayerManager().getScheduler();
+        for(LoadScheduler.Priority priority: LoadScheduler.Priority.values())
+        {
+            long[] waits = scheduler.getWaitHistogram(priority);
+            sb.append("\n  ").append(priority).append(" = ").append(scheduler.getRunning(priority)).append(" running, ")
+                    .append(scheduler.getQueued(priority)).append(" queued, ").append(scheduler.getStarted(priority)).append(" started")
+                    .append("\n    Wait p50/p99/max = ").append(AudioMetrics.percentile(waits, 0.5) / 1000)
+                    .append("/").append(AudioMetrics.percentile(waits, 0.99) / 1000)
+                    .append("/").append(AudioMetrics.percentile(waits, 1) / 1000).append("ms");
+        }
+        AutoplaylistStarter starter = bot.getAutoplaylistStarter();
+        sb.append("\n  Startup = ").append(starter.getDone()).append("/").append(starter.getTotal()).append(" guilds started, ")
+                .append(starter.getPlaying()).append(" playing");
+        if(starter.getWarmUpTime() >= 0)
+            sb.append(", warmed up in ").append(starter.getWarmUpTime()).append("ms");
+        sb.append("\n\nAudio Information:");
+        for(AudioManager manager: event.getJDA().getAudioManagers())
+        {
+            if(!(manager.getSendingHandler() instanceof AudioHandler))
+                continue;
+            AudioMetrics metrics = ((AudioHandler)manager.getSendingHandler()).getMetrics();
+            long[] provide = metrics.getProvideHistogram();
+            long[] jitter = metrics.getJitterHistogram();
+            long[] handovers = metrics.getHandoverHistogram();
+            sb.append("\n  ").append(manager.getGuild().getName()).append(" (").append(manager.getGuild().getId()).append(")")
+                    .append("\n    Frames = ").append(metrics.getFramesProvided())
+                    .append(", Missed = ").append(metrics.getFramesMissed())
+                    .append("\n    Provide p50/p99 = ").append(AudioMetrics.percentile(provide, 0.5))
+                    .append("/").append(AudioMetrics.percentile(provide, 0.99)).append("us")
+                    .append("\n    Jitter p50/p99/max = ").append(AudioMetrics.percentile(jitter, 0.5))
+                    .append("/").append(AudioMetrics.percentile(jitter, 0.99))
+                    .append("/").append(AudioMetrics.percentile(jitter, 1)).append("us")
+                    .append("\n    Track change p50/max = ").append(AudioMetrics.percentile(handovers, 0.5) / 1000)
+                    .append("/").append(AudioMetrics.percentile(handovers, 1) / 1000).append("ms");
+        }
         sb.append("\n\nDiscord Information:")
                 .append("\n  ID = ").append(event.getJDA().getSelfUser().getId())
                 .append("\n  Guilds = ").append(event.getJDA().getGuildCache().size())
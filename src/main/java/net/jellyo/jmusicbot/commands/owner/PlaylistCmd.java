@@ -16,6 +16,8 @@
 package com.jagrosh.jmusicbot.commands.owner;
 
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
 import java.util.List;
 import com.jagrosh.jdautilities.command.Command;
 import com.jagrosh.jdautilities.command.CommandEvent;
@@ -35,12 +37,13 @@ public class PlaylistCmd extends OwnerCommand
         this.bot = bot;
         this.guildOnly = false;
         this.name = "playlist";
-        this.arguments = "<append|delete|make|setdefault>";
+        this.arguments = "<append|compile|delete|make|setdefault>";
         this.help = "playlist management";
         this.aliases = bot.getConfig().getAliases(this.name);
         this.children = new OwnerCommand[]{
             new ListCmd(),
             new AppendlistCmd(),
+            new CompilelistCmd(),
             new DeletelistCmd(),
             new MakelistCmd(),
             new DefaultlistCmd(bot)
@@ -94,6 +97,37 @@ public class PlaylistCmd extends OwnerCommand
         }
     }
     
+    public class CompilelistCmd extends OwnerCommand 
+    {
+        public CompilelistCmd()
+        {
+            this.name = "compile";
+            this.help = "stores what a playlist's songs resolve to, so it plays without looking them up";
+            this.arguments = "<name>";
+            this.guildOnly = false;
+        }
+
+        @Override
+        protected void execute(CommandEvent event) 
+        {
+            String pname = event.getArgs().replaceAll("\\s+", "_");
+            Playlist playlist = bot.getPlaylistLoader().getPlaylist(pname);
+            if(playlist==null)
+            {
+                event.reply(event.getClient().getError()+" Playlist `"+pname+"` doesn't exist!");
+                return;
+            }
+            event.reply(event.getClient().getSuccess()+" Compiling playlist `"+pname+"` ("+playlist.getItems().size()+" items) in the background...");
+            playlist.compile(bot.getPlayerManager(), null, () -> 
+            {
+                int failed = playlist.getErrors().size();
+                event.reply(event.getClient().getSuccess()+" Compiled playlist `"+pname+"`: "
+                        +(playlist.getItems().size()-failed)+" items resolved"
+                        +(failed==0 ? "." : ", "+failed+" could not be loaded."));
+            });
+        }
+    }
+    
     public class DeletelistCmd extends OwnerCommand 
     {
         public DeletelistCmd()
@@ -147,30 +181,26 @@ public class PlaylistCmd extends OwnerCommand
                 return;
             }
             String pname = parts[0];
-            Playlist playlist = bot.getPlaylistLoader().getPlaylist(pname);
-            if(playlist==null)
+            List<String> items = new ArrayList<>();
+            for(String url: parts[1].split("\\|"))
+            {
+                String u = url.trim();
+                if(u.startsWith("<") && u.endsWith(">"))
+                    u = u.substring(1, u.length()-1);
+                items.add(u);
+            }
+            try
+            {
+                bot.getPlaylistLoader().appendToPlaylist(pname, items, event.getAuthor().getId());
+                event.reply(event.getClient().getSuccess()+" Successfully added "+items.size()+" items to playlist `"+pname+"`!");
+            }
+            catch(NoSuchFileException e)
+            {
                 event.reply(event.getClient().getError()+" Playlist `"+pname+"` doesn't exist!");
-            else
+            }
+            catch(IOException e)
             {
-                StringBuilder builder = new StringBuilder();
-                playlist.getItems().forEach(item -> builder.append("\r\n").append(item));
-                String[] urls = parts[1].split("\\|");
-                for(String url: urls)
-                {
-                    String u = url.trim();
-                    if(u.startsWith("<") && u.endsWith(">"))
-                        u = u.substring(1, u.length()-1);
-                    builder.append("\r\n").append(u);
-                }
-                try
-                {
-                    bot.getPlaylistLoader().writePlaylist(pname, builder.toString());
-                    event.reply(event.getClient().getSuccess()+" Successfully added "+urls.length+" items to playlist `"+pname+"`!");
-                }
-                catch(IOException e)
-                {
-                    event.reply(event.getClient().getError()+" I was unable to append to the playlist: "+e.getLocalizedMessage());
-                }
+                event.reply(event.getClient().getError()+" I was unable to append to the playlist: "+e.getLocalizedMessage());
             }
         }
     }
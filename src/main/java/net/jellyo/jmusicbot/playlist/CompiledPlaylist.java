@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.playlist;
+
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * What each line of a playlist resolved to, stored next to the playlist so
+ * that playing it does not have to resolve every line again. Lines are
+ * identified by a hash of their text, so editing a playlist only loses the
+ * entries of the lines that changed.
+ *
+ * The file holds a magic number and version, then each entry: the line's
+ * hash, when it was resolved, whether it was a single track, and its tracks
+ * in lavaplayer's encoded form.
+ *
+ * @author Jellyo
+ */
+class CompiledPlaylist
+{
+    final static String EXTENSION = ".compiled";
+
+    private final static Logger LOG = LoggerFactory.getLogger(CompiledPlaylist.class);
+    private final static int MAGIC = 0x4A4D4350;
+    private final static int VERSION = 1;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private boolean dirty = false;
+
+    /**
+     * @param file the file to read
+     * @return what it holds, or null if there is no such file or it cannot
+     * be read
+     */
+    static CompiledPlaylist read(Path file)
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION)
+                return null;
+            CompiledPlaylist compiled = new CompiledPlaylist();
+            for(int i=in.readInt(); i>0; i--)
+            {
+                long hash = in.readLong();
+                long resolved = in.readLong();
+                boolean single = in.readBoolean();
+                List<byte[]> tracks = new ArrayList<>();
+                for(int j=in.readInt(); j>0; j--)
+                {
+                    byte[] track = new byte[in.readInt()];
+                    in.readFully(track);
+                    tracks.add(track);
+                }
+                compiled.entries.put(hash, new Entry(resolved, single, tracks));
+            }
+            return compiled;
+        }
+        catch(NoSuchFileException ex)
+        {
+            return null;
+        }
+        catch(IOException ex)
+        {
+            LOG.warn("Could not read the compiled playlist " + file, ex);
+            return null;
+        }
+    }
+
+    /**
+     * @param line a line of the playlist
+     * @param maxAge how long ago the entry can have been resolved, in milliseconds
+     * @return the line's entry, or null if it has none or it is too old
+     */
+    synchronized Entry get(String line, long maxAge)
+    {
+        Entry entry = entries.get(hash(line));
+        return entry == null || System.currentTimeMillis() - entry.resolved > maxAge ? null : entry;
+    }
+
+    synchronized void put(String line, Entry entry)
+    {
+        entries.put(hash(line), entry);
+        dirty = true;
+    }
+
+    /**
+     * @return whether there are entries that have not been written yet
+     */
+    synchronized boolean isDirty()
+    {
+        return dirty;
+    }
+
+    /**
+     * Writes the entries of the given lines, replacing the file at once so
+     * it is never seen half written
+     *
+     * @param file the file to write
+     * @param lines the lines of the playlist
+     */
+    synchronized void write(Path file, Collection<String> lines) throws IOException
+    {
+        Map<Long, Entry> kept = new HashMap<>();
+        for(String line: lines)
+        {
+            long hash = hash(line);
+            Entry entry = entries.get(hash);
+            if(entry != null)
+                kept.put(hash, entry);
+        }
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try
+        {
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(kept.size());
+                for(Map.Entry<Long, Entry> e: kept.entrySet())
+                {
+                    out.writeLong(e.getKey());
+                    out.writeLong(e.getValue().resolved);
+                    out.writeBoolean(e.getValue().single);
+                    out.writeInt(e.getValue().tracks.size());
+                    for(byte[] track: e.getValue().tracks)
+                    {
+                        out.writeInt(track.length);
+                        out.write(track);
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+        entries.keySet().retainAll(kept.keySet());
+        dirty = false;
+    }
+
+    /**
+     * A 64-bit FNV-1a hash of the line's text
+     */
+    static long hash(String line)
+    {
+        long hash = 0xcbf29ce484222325L;
+        for(byte b: line.getBytes(StandardCharsets.UTF_8))
+        {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    static byte[] encode(AudioPlayerManager manager, AudioTrack track) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        manager.encodeTrack(new MessageOutput(out), track);
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the track, or null if the source it came from is not registered
+     */
+    static AudioTrack decode(AudioPlayerManager manager, byte[] track) throws IOException
+    {
+        DecodedTrackHolder holder = manager.decodeTrack(new MessageInput(new ByteArrayInputStream(track)));
+        return holder == null ? null : holder.decodedTrack;
+    }
+
+    static class Entry
+    {
+        final long resolved;
+        // whether the line was a single track rather than a playlist
+        final boolean single;
+        final List<byte[]> tracks;
+
+        Entry(long resolved, boolean single, List<byte[]> tracks)
+        {
+            this.resolved = resolved;
+            this.single = single;
+            this.tracks = tracks;
+        }
+    }
+}
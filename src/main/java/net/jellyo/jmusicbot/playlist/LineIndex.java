@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.playlist;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * Where each item of a playlist file starts and how long it is, so that
+ * items can be read one at a time without holding the file in memory. Items
+ * are read straight from the file, so an index only covers the file as it
+ * was; {@link #isCurrent()} tells whether it still is. Appending to the file
+ * leaves the indexed items where they were, but once it has been replaced
+ * they can no longer be read.
+ *
+ * @author Jellyo
+ */
+class LineIndex
+{
+    private final static int CHUNK = 64 * 1024;
+
+    private final Path file;
+    private final long size, modified;
+    // tells the file apart from one that replaced it, where the file system allows
+    private final Object key;
+    private final long[] starts;
+    private final int[] lengths;
+    private final int count;
+    private final boolean shuffle;
+
+    private LineIndex(Path file, BasicFileAttributes attributes, long[] starts, int[] lengths, int count, boolean shuffle)
+    {
+        this.file = file;
+        this.size = attributes.size();
+        this.modified = attributes.lastModifiedTime().toMillis();
+        this.key = attributes.fileKey();
+        this.starts = starts;
+        this.lengths = lengths;
+        this.count = count;
+        this.shuffle = shuffle;
+    }
+
+    /**
+     * Reads through the file once, following the same rules as a playlist
+     * that is read whole: blank lines and comments are skipped, and a
+     * {@code #shuffle} comment marks the playlist as shuffled
+     */
+    static LineIndex build(Path file) throws IOException
+    {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long[] starts = new long[1024];
+        int[] lengths = new int[1024];
+        int count = 0;
+        boolean shuffle = false;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK);
+            // where the current line's text starts and ends, and its first bytes
+            long textStart = -1, textEnd = -1;
+            byte[] head = new byte[32];
+            int headLength = 0;
+            long position = 0;
+            boolean done = false;
+            while(!done)
+            {
+                buffer.clear();
+                int read = channel.read(buffer);
+                done = read < 0;
+                buffer.flip();
+                int limit = done ? 1 : buffer.limit();
+                for(int i=0; i<limit; i++, position++)
+                {
+                    byte b = done ? (byte) '\n' : buffer.get(i);
+                    if(b == '\n' || b == '\r')
+                    {
+                        if(textStart >= 0)
+                        {
+                            String start = new String(head, 0, headLength, StandardCharsets.UTF_8);
+                            if(start.startsWith("#") || start.startsWith("//"))
+                            {
+                                String comment = start.replaceAll("\\s+", "");
+                                if(comment.equalsIgnoreCase("#shuffle") || comment.equalsIgnoreCase("//shuffle"))
+                                    shuffle = true;
+                            }
+                            else
+                            {
+                                if(count == starts.length)
+                                {
+                                    starts = Arrays.copyOf(starts, count * 2);
+                                    lengths = Arrays.copyOf(lengths, count * 2);
+                                }
+                                starts[count] = textStart;
+                                lengths[count] = (int) (textEnd - textStart);
+                                count++;
+                            }
+                        }
+                        textStart = -1;
+                        headLength = 0;
+                        continue;
+                    }
+                    if((b & 0xff) > ' ')
+                    {
+                        if(textStart < 0)
+                            textStart = position;
+                        textEnd = position + 1;
+                    }
+                    if(textStart >= 0 && headLength < head.length)
+                        head[headLength++] = b;
+                }
+            }
+        }
+        return new LineIndex(file, attributes, starts, lengths, count, shuffle);
+    }
+
+    /**
+     * @return whether the file has not changed since it was indexed
+     */
+    boolean isCurrent()
+    {
+        try
+        {
+            return Files.size(file) == size && Files.getLastModifiedTime(file).toMillis() == modified;
+        }
+        catch(IOException ex)
+        {
+            return false;
+        }
+    }
+
+    int size()
+    {
+        return count;
+    }
+
+    boolean isShuffle()
+    {
+        return shuffle;
+    }
+
+    /**
+     * @param item the item's number, from 0
+     * @return the item's text
+     */
+    String read(int item) throws IOException
+    {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if(attributes.size() < size || (key != null && !key.equals(attributes.fileKey())))
+            throw new IOException("The playlist has been replaced since it was indexed");
+        ByteBuffer buffer = ByteBuffer.allocate(lengths[item]);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            while(buffer.hasRemaining())
+                if(channel.read(buffer, starts[item] + buffer.position()) < 0)
+                    throw new IOException("The playlist changed while it was being read");
+        }
+        return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.playlist;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The playlists in the playlists folder, parsed once and shared by everyone
+ * that plays them. A {@link WatchService} on the folder drops a playlist's
+ * parsed form when its file changes, so it is parsed again the next time it
+ * is asked for. If the folder cannot be watched, the folder is listed and
+ * files are parsed on every call, as they always were.
+ *
+ * @author Jellyo
+ */
+class PlaylistCatalog
+{
+    private final static Logger LOG = LoggerFactory.getLogger(PlaylistCatalog.class);
+    private final static String EXTENSION = ".txt";
+
+    private final Path folder;
+    private final Set<String> names = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // bumped by every change, so that a parse that raced one is not kept
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean watching = false;
+
+    PlaylistCatalog(Path folder)
+    {
+        this.folder = folder;
+    }
+
+    /**
+     * @return the names of the playlists, or null if the folder does not exist
+     */
+    List<String> getNames()
+    {
+        if(!watch())
+        {
+            if(!Files.isDirectory(folder))
+                return null;
+            scan();
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * @param name the name of a playlist
+     * @return its parsed form, or null if there is no such playlist
+     */
+    Entry get(String name)
+    {
+        if(!watch())
+        {
+            List<String> current = getNames();
+            return current == null || !current.contains(name) ? null : parse(name);
+        }
+        if(!names.contains(name))
+            return null;
+        Entry entry = entries.get(name);
+        if(entry != null)
+            return entry;
+        long before = generation.get();
+        Entry parsed = parse(name);
+        if(parsed == null)
+            return null;
+        // checked and kept in one step: every change bumps the generation
+        // before it drops entries, so a parse kept here is either dropped by
+        // that change or was never kept
+        entries.compute(name, (key, current) -> current != null ? current
+                : generation.get() == before ? parsed : null);
+        return parsed;
+    }
+
+    /**
+     * Drops what is known about a playlist, for changes made by the bot
+     * itself, so they are seen without waiting for the watch service
+     *
+     * @param name the name of the playlist that changed
+     */
+    void changed(String name)
+    {
+        generation.incrementAndGet();
+        entries.remove(name);
+        if(Files.exists(fileOf(name)))
+            names.add(name);
+        else
+            names.remove(name);
+    }
+
+    Path fileOf(String name)
+    {
+        return folder.resolve(name + EXTENSION);
+    }
+
+    /**
+     * Starts watching the folder if it is not being watched yet
+     *
+     * @return whether the folder is being watched
+     */
+    private synchronized boolean watch()
+    {
+        if(watching)
+            return true;
+        if(!Files.isDirectory(folder))
+            return false;
+        WatchService service;
+        try
+        {
+            service = folder.getFileSystem().newWatchService();
+            folder.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        catch(IOException | UnsupportedOperationException ex)
+        {
+            LOG.warn("Could not watch the playlists folder, playlists will be read every time they are used", ex);
+            return false;
+        }
+        scan();
+        watching = true;
+        Thread thread = new Thread(() -> poll(service), "playlist-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private void poll(WatchService service)
+    {
+        try
+        {
+            while(true)
+            {
+                WatchKey key = service.take();
+                for(WatchEvent<?> event: key.pollEvents())
+                {
+                    if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+                    {
+                        generation.incrementAndGet();
+                        entries.clear();
+                        scan();
+                        continue;
+                    }
+                    String file = event.context().toString();
+                    if(file.endsWith(EXTENSION))
+                        changed(file.substring(0, file.length() - EXTENSION.length()));
+                }
+                // the folder itself is gone; look for it again on the next call
+                if(!key.reset())
+                    break;
+            }
+        }
+        catch(InterruptedException ignored) {}
+        synchronized(this)
+        {
+            watching = false;
+            generation.incrementAndGet();
+            entries.clear();
+            names.clear();
+        }
+        try
+        {
+            service.close();
+        }
+        catch(IOException ignored) {}
+    }
+
+    private void scan()
+    {
+        List<String> found = new ArrayList<>();
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(folder, "*" + EXTENSION))
+        {
+            for(Path path: stream)
+            {
+                String file = path.getFileName().toString();
+                found.add(file.substring(0, file.length() - EXTENSION.length()));
+            }
+        }
+        catch(IOException ex)
+        {
+            LOG.warn("Could not list the playlists folder", ex);
+        }
+        names.retainAll(found);
+        names.addAll(found);
+        entries.keySet().retainAll(found);
+    }
+
+    private Entry parse(String name)
+    {
+        try
+        {
+            boolean shuffle = false;
+            List<String> items = new ArrayList<>();
+            for(String line: Files.readAllLines(fileOf(name)))
+            {
+                String s = line.trim();
+                if(s.isEmpty())
+                    continue;
+                if(s.startsWith("#") || s.startsWith("//"))
+                {
+                    s = s.replaceAll("\\s+", "");
+                    if(s.equalsIgnoreCase("#shuffle") || s.equalsIgnoreCase("//shuffle"))
+                        shuffle = true;
+                }
+                else
+                    items.add(s);
+            }
+            return new Entry(Collections.unmodifiableList(items), shuffle);
+        }
+        catch(IOException ex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * A parsed playlist file. It is shared, so it never changes.
+     */
+    static class Entry
+    {
+        final List<String> items;
+        final boolean shuffle;
+
+        private Entry(List<String> items, boolean shuffle)
+        {
+            this.items = items;
+            this.shuffle = shuffle;
+        }
+    }
+}
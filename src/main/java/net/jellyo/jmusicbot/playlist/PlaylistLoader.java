@@ -16,18 +16,23 @@
 package com.jagrosh.jmusicbot.playlist;
 
 import com.jagrosh.jmusicbot.BotConfig;
+import com.jagrosh.jmusicbot.audio.LoadScheduler;
+import com.jagrosh.jmusicbot.audio.PlayerManager;
 import com.jagrosh.jmusicbot.utils.OtherUtil;
 import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
-import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
 import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.function.IntConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  *
@@ -35,26 +40,39 @@ import java.util.stream.Collectors;
  */
 public class PlaylistLoader
 {
+    // how many items of one playlist are resolved at once
+    public final static int PARALLEL_LOADS = 4;
+    // playlist files larger than this are played a few items at a time
+    public final static long LAZY_SIZE = 256 * 1024;
+
+    private final static Logger LOG = LoggerFactory.getLogger(PlaylistLoader.class);
+
     private final BotConfig config;
+    private final PlaylistCatalog catalog;
+    private final PlaylistWriter writer;
+    // compiled playlists that have been read, shared by everyone playing them
+    private final Map<String, CompiledPlaylist> compiledPlaylists = new ConcurrentHashMap<>();
+    // line indexes of the playlists that are played lazily
+    private final Map<String, LineIndex> indexes = new ConcurrentHashMap<>();
+    // playlists being played by at least one guild, resolved once for all of them; guarded by itself
+    private final Map<String, Resolution> shared = new HashMap<>();
     
     public PlaylistLoader(BotConfig config)
     {
         this.config = config;
+        this.catalog = new PlaylistCatalog(OtherUtil.getPath(config.getPlaylistsFolder()));
+        this.writer = new PlaylistWriter(catalog, config.getPlaylistJournal());
     }
     
     public List<String> getPlaylistNames()
     {
-        if(folderExists())
-        {
-            File folder = new File(OtherUtil.getPath(config.getPlaylistsFolder()).toString());
-            return Arrays.asList(folder.listFiles((pathname) -> pathname.getName().endsWith(".txt")))
-                    .stream().map(f -> f.getName().substring(0,f.getName().length()-4)).collect(Collectors.toList());
-        }
-        else
+        List<String> names = catalog.getNames();
+        if(names == null)
         {
             createFolder();
             return Collections.emptyList();
         }
+        return names;
     }
     
     public void createFolder()
@@ -73,59 +91,211 @@ public class PlaylistLoader
     
     public void createPlaylist(String name) throws IOException
     {
-        Files.createFile(OtherUtil.getPath(config.getPlaylistsFolder()+File.separator+name+".txt"));
+        Files.createFile(catalog.fileOf(name));
+        catalog.changed(name);
     }
     
     public void deletePlaylist(String name) throws IOException
     {
-        Files.delete(OtherUtil.getPath(config.getPlaylistsFolder()+File.separator+name+".txt"));
+        writer.delete(name);
+        indexes.remove(name);
+        compiledPlaylists.remove(name);
+        Files.deleteIfExists(compiledFileOf(name));
     }
     
     public void writePlaylist(String name, String text) throws IOException
     {
-        Files.write(OtherUtil.getPath(config.getPlaylistsFolder()+File.separator+name+".txt"), text.trim().getBytes());
+        writer.write(name, text.trim());
+        indexes.remove(name);
+    }
+
+    /**
+     * Adds items to the end of a playlist without rewriting it, so this
+     * takes as long as the items do however long the playlist is
+     *
+     * @param name the name of the playlist
+     * @param items the items to add
+     * @param author the id of the user adding them
+     * @throws java.nio.file.NoSuchFileException if there is no such playlist
+     */
+    public void appendToPlaylist(String name, List<String> items, String author) throws IOException
+    {
+        writer.append(name, items, author);
     }
     
+    /**
+     * Parsed playlists are shared, so this only reads the file if it has
+     * changed since it was last read
+     *
+     * @param name the name of the playlist
+     * @return a new playlist to load, or null if there is no such playlist
+     */
     public Playlist getPlaylist(String name)
     {
-        if(!getPlaylistNames().contains(name))
+        PlaylistCatalog.Entry entry = catalog.get(name);
+        if(entry == null)
+        {
+            if(!folderExists())
+                createFolder();
             return null;
+        }
+        if(!entry.shuffle)
+            return new Playlist(name, entry.items, false);
+        List<String> list = new ArrayList<>(entry.items);
+        shuffle(list);
+        return new Playlist(name, list, true);
+    }
+
+    /**
+     * Playlists whose file is at least {@link #LAZY_SIZE} are not read whole;
+     * they are indexed instead, and the index is kept until the file changes
+     *
+     * @param name the name of the playlist
+     * @return a new lazy playlist to play, or null if there is no such
+     * playlist or it is small enough to load with {@link #getPlaylist}
+     */
+    public LazyPlaylist getLazyPlaylist(String name)
+    {
+        Path file = catalog.fileOf(name);
         try
         {
-            if(folderExists())
+            if(!Files.isRegularFile(file) || Files.size(file) < LAZY_SIZE)
+                return null;
+            LineIndex index = indexes.get(name);
+            if(index == null || !index.isCurrent())
+            {
+                index = LineIndex.build(file);
+                indexes.put(name, index);
+            }
+            return index.size() == 0 ? null : new LazyPlaylist(name, index);
+        }
+        catch(IOException ex)
+        {
+            LOG.warn("Could not index the playlist "+name, ex);
+            return null;
+        }
+    }
+    
+    /**
+     * Every guild playing the same playlist shares one resolution of it,
+     * which is kept for as long as any of them has a cursor open on it and
+     * the file has not changed. Each cursor hands out its own clones of the
+     * tracks, in its own order.
+     *
+     * @param name the name of the playlist
+     * @param manager the manager to load items with, if the playlist has to be resolved
+     * @param listener given the cursor whenever more of its tracks are
+     * available, and once the playlist has been resolved
+     * @return a new cursor, or null if there is no such playlist or it is empty
+     */
+    public SharedCursor<AudioTrack> openShared(String name, PlayerManager manager, Consumer<SharedCursor<AudioTrack>> listener)
+    {
+        PlaylistCatalog.Entry entry = catalog.get(name);
+        if(entry == null)
+        {
+            if(!folderExists())
+                createFolder();
+            return null;
+        }
+        if(entry.items.isEmpty())
+            return null;
+        Resolution resolution;
+        SharedCursor<AudioTrack> cursor;
+        boolean created = false;
+        synchronized(shared)
+        {
+            resolution = shared.get(name);
+            if(resolution == null || resolution.entry != entry)
             {
-                boolean[] shuffle = {false};
-                List<String> list = new ArrayList<>();
-                Files.readAllLines(OtherUtil.getPath(config.getPlaylistsFolder()+File.separator+name+".txt")).forEach(str -> 
+                SharedPlaylist<AudioTrack> playlist = new SharedPlaylist<>(entry.shuffle, track ->
                 {
-                    String s = str.trim();
-                    if(s.isEmpty())
-                        return;
-                    if(s.startsWith("#") || s.startsWith("//"))
+                    AudioTrack copy = track.makeClone();
+                    copy.setUserData(0L);
+                    return copy;
+                }, released ->
+                {
+                    synchronized(shared)
                     {
-                        s = s.replaceAll("\\s+", "");
-                        if(s.equalsIgnoreCase("#shuffle") || s.equalsIgnoreCase("//shuffle"))
-                            shuffle[0]=true;
+                        Resolution current = shared.get(name);
+                        if(current != null && current.playlist == released && released.isUnused())
+                            shared.remove(name);
                     }
-                    else
-                        list.add(s);
                 });
-                if(shuffle[0])
-                    shuffle(list);
-                return new Playlist(name, list, shuffle[0]);
+                resolution = new Resolution(entry, playlist);
+                shared.put(name, resolution);
+                created = true;
             }
-            else
+            cursor = resolution.playlist.open(listener);
+        }
+        if(created)
+        {
+            SharedPlaylist<AudioTrack> playlist = resolution.playlist;
+            new Playlist(name, entry.items, false).loadTracks(manager, playlist::add, playlist::finish);
+        }
+        return cursor;
+    }
+    
+    private Path compiledFileOf(String name)
+    {
+        return OtherUtil.getPath(config.getPlaylistsFolder()).resolve(name + CompiledPlaylist.EXTENSION);
+    }
+
+    /**
+     * @return the playlist's compiled form, or null if it has not been compiled
+     */
+    private CompiledPlaylist getCompiled(String name)
+    {
+        return compiledPlaylists.computeIfAbsent(name, n -> CompiledPlaylist.read(compiledFileOf(n)));
+    }
+    
+    /**
+     * @return what the item's compiled entry holds, or null if it has to be resolved
+     */
+    private Result decode(PlayerManager manager, CompiledPlaylist compiled, String item, boolean shuffle)
+    {
+        if(compiled == null)
+            return null;
+        CompiledPlaylist.Entry entry = compiled.get(item, TimeUnit.HOURS.toMillis(config.getTrackCacheHours()));
+        if(entry == null)
+            return null;
+        try
+        {
+            List<AudioTrack> decoded = new ArrayList<>(entry.tracks.size());
+            for(byte[] encoded: entry.tracks)
             {
-                createFolder();
-                return null;
+                AudioTrack track = CompiledPlaylist.decode(manager, encoded);
+                if(track == null)
+                    return null;
+                decoded.add(track);
             }
+            return prepare(decoded, entry.single, shuffle);
         }
-        catch(IOException e)
+        catch(IOException ex)
         {
             return null;
         }
     }
-    
+
+    /**
+     * Turns what an item resolved to into the tracks that are played
+     */
+    private Result prepare(List<AudioTrack> found, boolean single, boolean shuffle)
+    {
+        if(single)
+        {
+            AudioTrack at = found.get(0);
+            if(config.isTooLong(at))
+                return new Result(null, "This track is longer than the allowed maximum");
+            at.setUserData(0L);
+            return new Result(Collections.singletonList(at), null);
+        }
+        List<AudioTrack> loaded = new ArrayList<>(found);
+        if(shuffle)
+            shuffle(loaded);
+        loaded.removeIf(track -> config.isTooLong(track));
+        loaded.forEach(at -> at.setUserData(0L));
+        return new Result(loaded, null);
+    }
     
     private static <T> void shuffle(List<T> list)
     {
@@ -155,87 +325,46 @@ public class PlaylistLoader
             this.shuffle = shuffle;
         }
         
-        public void loadTracks(AudioPlayerManager manager, Consumer<AudioTrack> consumer, Runnable callback)
+        public void loadTracks(PlayerManager manager, Consumer<List<AudioTrack>> consumer, Runnable callback)
+        {
+            loadTracks(manager, consumer, null, callback);
+        }
+
+        /**
+         * Resolves up to {@link PlaylistLoader#PARALLEL_LOADS} items at once, but hands their
+         * tracks to the consumer in the order of the items, each as soon as
+         * every item before it has been resolved. If the playlist has been
+         * compiled, items with a recent enough entry are decoded instead of
+         * resolved, and the entries of the others are brought up to date.
+         *
+         * @param manager the manager to load items with
+         * @param consumer given the tracks of each item
+         * @param progress given how many items have been resolved so far, or null
+         * @param callback run once every item has been resolved, or null
+         */
+        public void loadTracks(PlayerManager manager, Consumer<List<AudioTrack>> consumer, IntConsumer progress, Runnable callback)
         {
             if(loaded)
                 return;
             loaded = true;
-            for(int i=0; i<items.size(); i++)
-            {
-                boolean last = i+1 == items.size();
-                int index = i;
-                manager.loadItemOrdered(name, items.get(i), new AudioLoadResultHandler() 
-                {
-                    private void done()
-                    {
-                        if(last)
-                        {
-                            if(shuffle)
-                                shuffleTracks();
-                            if(callback != null)
-                                callback.run();
-                        }
-                    }
-
-                    @Override
-                    public void trackLoaded(AudioTrack at) 
-                    {
-                        if(config.isTooLong(at))
-                            errors.add(new PlaylistLoadError(index, items.get(index), "This track is longer than the allowed maximum"));
-                        else
-                        {
-                            at.setUserData(0L);
-                            tracks.add(at);
-                            consumer.accept(at);
-                        }
-                        done();
-                    }
-
-                    @Override
-                    public void playlistLoaded(AudioPlaylist ap) 
-                    {
-                        if(ap.isSearchResult())
-                        {
-                            trackLoaded(ap.getTracks().get(0));
-                        }
-                        else if(ap.getSelectedTrack()!=null)
-                        {
-                            trackLoaded(ap.getSelectedTrack());
-                        }
-                        else
-                        {
-                            List<AudioTrack> loaded = new ArrayList<>(ap.getTracks());
-                            if(shuffle)
-                                for(int first =0; first<loaded.size(); first++)
-                                {
-                                    int second = (int)(Math.random()*loaded.size());
-                                    AudioTrack tmp = loaded.get(first);
-                                    loaded.set(first, loaded.get(second));
-                                    loaded.set(second, tmp);
-                                }
-                            loaded.removeIf(track -> config.isTooLong(track));
-                            loaded.forEach(at -> at.setUserData(0L));
-                            tracks.addAll(loaded);
-                            loaded.forEach(at -> consumer.accept(at));
-                        }
-                        done();
-                    }
-
-                    @Override
-                    public void noMatches() 
-                    {
-                        errors.add(new PlaylistLoadError(index, items.get(index), "No matches found."));
-                        done();
-                    }
+            new Loading(this, manager, consumer, progress, callback, getCompiled(name), false).start();
+        }
 
-                    @Override
-                    public void loadFailed(FriendlyException fe) 
-                    {
-                        errors.add(new PlaylistLoadError(index, items.get(index), "Failed to load track: "+fe.getLocalizedMessage()));
-                        done();
-                    }
-                });
-            }
+        /**
+         * Resolves every item again and stores what they resolved to next to
+         * the playlist, so that it can be played without resolving them
+         *
+         * @param manager the manager to load items with
+         * @param progress given how many items have been resolved so far, or null
+         * @param callback run once the compiled playlist has been written, or null
+         */
+        public void compile(PlayerManager manager, IntConsumer progress, Runnable callback)
+        {
+            if(loaded)
+                return;
+            loaded = true;
+            CompiledPlaylist compiled = compiledPlaylists.computeIfAbsent(name, n -> new CompiledPlaylist());
+            new Loading(this, manager, tracks -> {}, progress, callback, compiled, true).start();
         }
         
         public void shuffleTracks()
@@ -264,6 +393,363 @@ public class PlaylistLoader
         }
     }
     
+    /**
+     * A playlist too large to resolve all at once, played a few items at a
+     * time. Items are read from the file as they come up, in the file's order
+     * or in a shuffled order that is worked out as it goes, so neither the
+     * items nor their tracks are ever all in memory.
+     */
+    public class LazyPlaylist
+    {
+        private final String name;
+        private final ShuffleOrder order;
+        // how many items this pass takes, which stays the same if the file is indexed again
+        private final int count;
+        private LineIndex index;
+        private int position = 0;
+
+        private LazyPlaylist(String name, LineIndex index)
+        {
+            this.name = name;
+            this.index = index;
+            this.count = index.size();
+            this.order = index.isShuffle() ? new ShuffleOrder(index.size(), new Random()) : null;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public int size()
+        {
+            return count;
+        }
+
+        /**
+         * @return whether there are items that have not been taken yet
+         */
+        public synchronized boolean hasNext()
+        {
+            return position < count;
+        }
+
+        /**
+         * Resolves the next item and gives its tracks to the consumer. Items
+         * that fail or have nothing playable are skipped, and once every item
+         * has been taken the consumer is given an empty list.
+         *
+         * @param manager the manager to load items with
+         * @param consumer given the tracks of the next item
+         */
+        public void loadNext(PlayerManager manager, Consumer<List<AudioTrack>> consumer)
+        {
+            CompiledPlaylist compiled = getCompiled(name);
+            while(true)
+            {
+                String item = nextItem();
+                if(item == null)
+                {
+                    consumer.accept(Collections.emptyList());
+                    return;
+                }
+                Result result = decode(manager, compiled, item, order != null);
+                if(result == null)
+                {
+                    load(manager, item, consumer);
+                    return;
+                }
+                if(result.error == null && !result.tracks.isEmpty())
+                {
+                    consumer.accept(result.tracks);
+                    return;
+                }
+            }
+        }
+
+        private void load(PlayerManager manager, String item, Consumer<List<AudioTrack>> consumer)
+        {
+            manager.loadItem(item, new AudioLoadResultHandler()
+            {
+                @Override
+                public void trackLoaded(AudioTrack at)
+                {
+                    resolved(prepare(Collections.singletonList(at), true, order != null));
+                }
+
+                @Override
+                public void playlistLoaded(AudioPlaylist ap)
+                {
+                    if(ap.isSearchResult())
+                        resolved(prepare(Collections.singletonList(ap.getTracks().get(0)), true, order != null));
+                    else if(ap.getSelectedTrack()!=null)
+                        resolved(prepare(Collections.singletonList(ap.getSelectedTrack()), true, order != null));
+                    else
+                        resolved(prepare(ap.getTracks(), false, order != null));
+                }
+
+                @Override
+                public void noMatches()
+                {
+                    loadNext(manager, consumer);
+                }
+
+                @Override
+                public void loadFailed(FriendlyException fe)
+                {
+                    loadNext(manager, consumer);
+                }
+
+                private void resolved(Result result)
+                {
+                    if(result.error == null && !result.tracks.isEmpty())
+                        consumer.accept(result.tracks);
+                    else
+                        loadNext(manager, consumer);
+                }
+            }, LoadScheduler.Priority.BACKGROUND);
+        }
+
+        /**
+         * Compacting or rewriting the file replaces it, which leaves the
+         * index unable to read it. Compacting keeps every item where it was,
+         * so the file is indexed again and the pass carries on from the same
+         * position.
+         *
+         * @return the text of the next item, or null if every item has been
+         * taken or the file can no longer be read, in which case the
+         * playlist is started again with a new index
+         */
+        private synchronized String nextItem()
+        {
+            if(position >= count)
+                return null;
+            int item = order == null ? position : order.get(position);
+            position++;
+            try
+            {
+                try
+                {
+                    return index.read(item);
+                }
+                catch(IOException ex)
+                {
+                    index = LineIndex.build(catalog.fileOf(name));
+                    indexes.put(name, index);
+                    if(item >= index.size())
+                        throw ex;
+                    return index.read(item);
+                }
+            }
+            catch(IOException ex)
+            {
+                LOG.warn("Could not read the playlist "+name+", it will be read again when it next plays: "+ex.getMessage());
+                position = count;
+                return null;
+            }
+        }
+    }
+    
+    /**
+     * A shared playlist along with the catalog entry it was resolved from
+     */
+    private static class Resolution
+    {
+        private final PlaylistCatalog.Entry entry;
+        private final SharedPlaylist<AudioTrack> playlist;
+
+        private Resolution(PlaylistCatalog.Entry entry, SharedPlaylist<AudioTrack> playlist)
+        {
+            this.entry = entry;
+            this.playlist = playlist;
+        }
+    }
+    
+    /**
+     * One run of {@link Playlist#loadTracks}: starts items as earlier ones
+     * are resolved, and commits them in order
+     */
+    private class Loading
+    {
+        private final Playlist playlist;
+        private final PlayerManager manager;
+        private final Consumer<List<AudioTrack>> consumer;
+        private final IntConsumer progress;
+        private final Runnable callback;
+        private final CompiledPlaylist compiled;
+        // whether to resolve items even if they have a compiled entry
+        private final boolean recompile;
+        // what each resolved item that has not been committed yet produced
+        private final Result[] results;
+        private int started = 0, resolved = 0, committed = 0;
+
+        private Loading(Playlist playlist, PlayerManager manager, Consumer<List<AudioTrack>> consumer, IntConsumer progress, 
+                Runnable callback, CompiledPlaylist compiled, boolean recompile)
+        {
+            this.playlist = playlist;
+            this.manager = manager;
+            this.consumer = consumer;
+            this.progress = progress;
+            this.callback = callback;
+            this.compiled = compiled;
+            this.recompile = recompile;
+            this.results = new Result[playlist.items.size()];
+        }
+
+        private void start()
+        {
+            for(int i=0; i<PARALLEL_LOADS; i++)
+                next();
+        }
+
+        /**
+         * Starts loading the next item. Items that are decoded from the
+         * compiled playlist do not take up a load, so this goes on until one
+         * has to be resolved.
+         */
+        private void next()
+        {
+            while(true)
+            {
+                int index;
+                synchronized(this)
+                {
+                    if(started == results.length)
+                        return;
+                    index = started++;
+                }
+                Result result = recompile ? null : decode(manager, compiled, playlist.items.get(index), playlist.shuffle);
+                if(result == null)
+                {
+                    load(index);
+                    return;
+                }
+                if(commit(index, result))
+                {
+                    finish();
+                    return;
+                }
+            }
+        }
+
+        private void load(int index)
+        {
+            String item = playlist.items.get(index);
+            // behind anything someone has asked for directly
+            manager.loadItem(item, new AudioLoadResultHandler() 
+            {
+                @Override
+                public void trackLoaded(AudioTrack at) 
+                {
+                    resolved(index, Collections.singletonList(at), true);
+                }
+
+                @Override
+                public void playlistLoaded(AudioPlaylist ap) 
+                {
+                    if(ap.isSearchResult())
+                        resolved(index, Collections.singletonList(ap.getTracks().get(0)), true);
+                    else if(ap.getSelectedTrack()!=null)
+                        resolved(index, Collections.singletonList(ap.getSelectedTrack()), true);
+                    else
+                        resolved(index, ap.getTracks(), false);
+                }
+
+                @Override
+                public void noMatches() 
+                {
+                    resolved(index, new Result(null, "No matches found."));
+                }
+
+                @Override
+                public void loadFailed(FriendlyException fe) 
+                {
+                    resolved(index, new Result(null, "Failed to load track: "+fe.getLocalizedMessage()));
+                }
+            }, LoadScheduler.Priority.BACKGROUND);
+        }
+
+        private void resolved(int index, List<AudioTrack> found, boolean single)
+        {
+            if(compiled != null)
+            {
+                try
+                {
+                    List<byte[]> encoded = new ArrayList<>(found.size());
+                    for(AudioTrack track: found)
+                        encoded.add(CompiledPlaylist.encode(manager, track));
+                    compiled.put(playlist.items.get(index), new CompiledPlaylist.Entry(System.currentTimeMillis(), single, encoded));
+                }
+                catch(IOException ignored) {}
+            }
+            resolved(index, prepare(found, single, playlist.shuffle));
+        }
+
+        private void resolved(int index, Result result)
+        {
+            if(commit(index, result))
+                finish();
+            else
+                next();
+        }
+
+        /**
+         * @return whether every item has now been committed
+         */
+        private synchronized boolean commit(int index, Result result)
+        {
+            results[index] = result;
+            resolved++;
+            if(progress != null)
+                progress.accept(resolved);
+            while(committed < results.length && results[committed] != null)
+            {
+                Result next = results[committed];
+                results[committed] = null;
+                if(next.error != null)
+                    playlist.errors.add(new PlaylistLoadError(committed, playlist.items.get(committed), next.error));
+                else if(!next.tracks.isEmpty())
+                {
+                    playlist.tracks.addAll(next.tracks);
+                    consumer.accept(next.tracks);
+                }
+                committed++;
+            }
+            return committed == results.length;
+        }
+
+        private void finish()
+        {
+            if(compiled != null && compiled.isDirty())
+            {
+                try
+                {
+                    compiled.write(compiledFileOf(playlist.name), playlist.items);
+                }
+                catch(IOException ex)
+                {
+                    LOG.warn("Could not write the compiled playlist "+playlist.name, ex);
+                }
+            }
+            if(playlist.shuffle)
+                playlist.shuffleTracks();
+            if(callback != null)
+                callback.run();
+        }
+    }
+
+    private static class Result
+    {
+        private final List<AudioTrack> tracks;
+        private final String error;
+
+        private Result(List<AudioTrack> tracks, String error)
+        {
+            this.tracks = tracks;
+            this.error = error;
+        }
+    }
+    
     public class PlaylistLoadError
     {
         private final int number;
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.playlist;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Makes every change to playlist files. Appends are added to the end of the
+ * file without reading or rewriting what is already there, and anything that
+ * rewrites a file replaces it at once, so readers never see it half written.
+ * Changes to the same playlist are made one at a time, so appends made at
+ * the same time are never lost.
+ *
+ * Once enough has been appended to a playlist, it is compacted in the
+ * background: rewritten with its items trimmed and blank lines dropped. If
+ * journalling is on, every append since the last compaction is also recorded
+ * in a journal next to the playlist.
+ *
+ * @author Jellyo
+ */
+class PlaylistWriter
+{
+    final static String JOURNAL = ".journal";
+
+    private final static Logger LOG = LoggerFactory.getLogger(PlaylistWriter.class);
+    private final static String NEWLINE = "\r\n";
+    // the least that has to be appended to a playlist before it is compacted
+    private final static long COMPACT_BYTES = 64 * 1024;
+
+    private final PlaylistCatalog catalog;
+    private final boolean journal;
+    private final ConcurrentHashMap<String, Object> locks = new ConcurrentHashMap<>();
+    // how much has been appended to each playlist since it was last written whole
+    private final ConcurrentHashMap<String, Long> appended = new ConcurrentHashMap<>();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r ->
+    {
+        Thread thread = new Thread(r, "playlist-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    PlaylistWriter(PlaylistCatalog catalog, boolean journal)
+    {
+        this.catalog = catalog;
+        this.journal = journal;
+    }
+
+    /**
+     * Adds items to the end of a playlist, taking time in proportion to the
+     * items rather than the playlist
+     *
+     * @param name the name of the playlist
+     * @param items the items to add
+     * @param author who added them, for the journal
+     * @throws java.nio.file.NoSuchFileException if there is no such playlist
+     */
+    void append(String name, List<String> items, String author) throws IOException
+    {
+        Path file = catalog.fileOf(name);
+        long size, added;
+        synchronized(lock(name))
+        {
+            StringBuilder builder = new StringBuilder();
+            if(!endsWithNewline(file))
+                builder.append(NEWLINE);
+            items.forEach(item -> builder.append(item).append(NEWLINE));
+            ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+            added = buffer.remaining();
+            try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+            {
+                while(buffer.hasRemaining())
+                    channel.write(buffer);
+                size = channel.size();
+            }
+            if(journal)
+                record(name, items, author);
+        }
+        catalog.changed(name);
+        long total = appended.merge(name, added, Long::sum);
+        if(total >= Math.max(COMPACT_BYTES, size / 2) && appended.remove(name, total))
+            compactor.execute(() -> compact(name));
+    }
+
+    /**
+     * Replaces the whole of a playlist
+     *
+     * @param name the name of the playlist
+     * @param text what the playlist should hold
+     */
+    void write(String name, String text) throws IOException
+    {
+        synchronized(lock(name))
+        {
+            replace(catalog.fileOf(name), out -> out.write(text));
+            appended.remove(name);
+            Files.deleteIfExists(journalOf(name));
+        }
+        catalog.changed(name);
+    }
+
+    void delete(String name) throws IOException
+    {
+        synchronized(lock(name))
+        {
+            Files.delete(catalog.fileOf(name));
+            appended.remove(name);
+            Files.deleteIfExists(journalOf(name));
+        }
+        catalog.changed(name);
+    }
+
+    private void compact(String name)
+    {
+        try
+        {
+            synchronized(lock(name))
+            {
+                Path file = catalog.fileOf(name);
+                if(!Files.exists(file))
+                    return;
+                // streamed line by line, so a huge playlist is never held in memory
+                replace(file, out ->
+                {
+                    try(BufferedReader reader = Files.newBufferedReader(file))
+                    {
+                        boolean first = true;
+                        for(String line = reader.readLine(); line != null; line = reader.readLine())
+                        {
+                            line = line.trim();
+                            if(line.isEmpty())
+                                continue;
+                            if(!first)
+                                out.write(NEWLINE);
+                            out.write(line);
+                            first = false;
+                        }
+                    }
+                });
+                Files.deleteIfExists(journalOf(name));
+            }
+            catalog.changed(name);
+        }
+        catch(IOException ex)
+        {
+            LOG.warn("Could not compact the playlist "+name, ex);
+        }
+    }
+
+    private void record(String name, List<String> items, String author)
+    {
+        StringBuilder builder = new StringBuilder();
+        String time = Instant.now().toString();
+        items.forEach(item -> builder.append(time).append('\t').append(author).append("\tappend\t").append(item).append(NEWLINE));
+        try
+        {
+            Files.write(journalOf(name), builder.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        catch(IOException ex)
+        {
+            LOG.warn("Could not write to the journal of the playlist "+name, ex);
+        }
+    }
+
+    /**
+     * @return whether the file is empty or its last line has been ended
+     */
+    private static boolean endsWithNewline(Path file) throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if(size == 0)
+                return true;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            byte b = last.get(0);
+            return b == '\n' || b == '\r';
+        }
+    }
+
+    /**
+     * Writes a file's new contents next to it and then moves them over it
+     */
+    private static void replace(Path file, Contents contents) throws IOException
+    {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try
+        {
+            try(BufferedWriter out = Files.newBufferedWriter(temp))
+            {
+                contents.writeTo(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path journalOf(String name)
+    {
+        return catalog.fileOf(name).resolveSibling(name + JOURNAL);
+    }
+
+    private Object lock(String name)
+    {
+        return locks.computeIfAbsent(name, n -> new Object());
+    }
+
+    private interface Contents
+    {
+        void writeTo(BufferedWriter out) throws IOException;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.playlist;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * One guild's place in a {@link SharedPlaylist}. It goes through the tracks
+ * in the playlist's order, or in its own random order if the playlist
+ * shuffles, taking in tracks as they are resolved.
+ *
+ * @author Jellyo
+ * @param <T> the tracks
+ */
+public class SharedCursor<T>
+{
+    private final SharedPlaylist<T> playlist;
+    private final Consumer<SharedCursor<T>> listener;
+    private final boolean shuffle;
+    private final Random random = new Random();
+    // the tracks not handed out yet, from head to count
+    private int[] unplayed = new int[16];
+    private int head = 0, count = 0;
+    // how many of the playlist's tracks have been taken in
+    private int seen = 0;
+    private boolean closed = false;
+
+    SharedCursor(SharedPlaylist<T> playlist, Consumer<SharedCursor<T>> listener, boolean shuffle)
+    {
+        this.playlist = playlist;
+        this.listener = listener;
+        this.shuffle = shuffle;
+    }
+
+    /**
+     * @return a copy of the next track, or null if none is available yet
+     */
+    public T next()
+    {
+        int index;
+        synchronized(this)
+        {
+            takeIn();
+            if(closed || head == count)
+                return null;
+            if(shuffle)
+            {
+                int pick = head + random.nextInt(count - head);
+                index = unplayed[pick];
+                unplayed[pick] = unplayed[--count];
+            }
+            else
+                index = unplayed[head++];
+        }
+        return playlist.copy(index);
+    }
+
+    /**
+     * @return whether the playlist has been resolved and every track handed out
+     */
+    public synchronized boolean isFinished()
+    {
+        // read before the size, so tracks added just before it finished are counted
+        boolean done = playlist.isDone();
+        takeIn();
+        return done && head == count;
+    }
+
+    /**
+     * @return how many tracks the playlist has resolved to so far
+     */
+    public int getTotal()
+    {
+        return playlist.size();
+    }
+
+    /**
+     * Lets go of the shared playlist, which is dropped once no one holds it
+     */
+    public void close()
+    {
+        synchronized(this)
+        {
+            if(closed)
+                return;
+            closed = true;
+        }
+        playlist.release(this);
+    }
+
+    void available()
+    {
+        listener.accept(this);
+    }
+
+    /**
+     * Adds the tracks the playlist has gained since this last looked
+     */
+    private void takeIn()
+    {
+        int size = playlist.size();
+        if(size == seen)
+            return;
+        if(count + size - seen > unplayed.length)
+            unplayed = Arrays.copyOf(unplayed, Math.max(unplayed.length * 2, count + size - seen));
+        while(seen < size)
+            unplayed[count++] = seen++;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.playlist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * One resolution of a playlist, shared by the guilds playing it. Tracks are
+ * added as they are resolved, and each guild goes through them with its own
+ * {@link SharedCursor}.
+ *
+ * Cursors find out about new tracks by asking for the size when they next
+ * need a track, rather than being told while this is locked, so a cursor's
+ * lock may be held while calling in here but never the other way around.
+ *
+ * @author Jellyo
+ * @param <T> the tracks
+ */
+public class SharedPlaylist<T>
+{
+    private final boolean shuffle;
+    private final UnaryOperator<T> copier;
+    private final Consumer<SharedPlaylist<T>> released;
+    private final List<T> tracks = new ArrayList<>();
+    private final List<SharedCursor<T>> cursors = new ArrayList<>();
+    private volatile boolean done = false;
+
+    /**
+     * @param shuffle whether each cursor takes the tracks in its own random order
+     * @param copier makes the copy of a track that a cursor hands out
+     * @param released told whenever the last cursor has been closed
+     */
+    public SharedPlaylist(boolean shuffle, UnaryOperator<T> copier, Consumer<SharedPlaylist<T>> released)
+    {
+        this.shuffle = shuffle;
+        this.copier = copier;
+        this.released = released;
+    }
+
+    /**
+     * @param listener given the cursor whenever more tracks are available,
+     * and once every track has been added
+     * @return a new cursor, starting with every track added so far
+     */
+    public synchronized SharedCursor<T> open(Consumer<SharedCursor<T>> listener)
+    {
+        SharedCursor<T> cursor = new SharedCursor<>(this, listener, shuffle);
+        cursors.add(cursor);
+        return cursor;
+    }
+
+    public void add(List<T> found)
+    {
+        List<SharedCursor<T>> listening;
+        synchronized(this)
+        {
+            tracks.addAll(found);
+            listening = new ArrayList<>(cursors);
+        }
+        listening.forEach(SharedCursor::available);
+    }
+
+    /**
+     * Marks every track as added
+     */
+    public void finish()
+    {
+        List<SharedCursor<T>> listening;
+        synchronized(this)
+        {
+            done = true;
+            listening = new ArrayList<>(cursors);
+        }
+        listening.forEach(SharedCursor::available);
+    }
+
+    /**
+     * @return whether no cursor is open on the playlist
+     */
+    public synchronized boolean isUnused()
+    {
+        return cursors.isEmpty();
+    }
+
+    synchronized T copy(int index)
+    {
+        return copier.apply(tracks.get(index));
+    }
+
+    synchronized int size()
+    {
+        return tracks.size();
+    }
+
+    boolean isDone()
+    {
+        return done;
+    }
+
+    void release(SharedCursor<T> cursor)
+    {
+        boolean unused;
+        synchronized(this)
+        {
+            cursors.remove(cursor);
+            unused = cursors.isEmpty();
+        }
+        if(unused)
+            released.accept(this);
+    }
+}
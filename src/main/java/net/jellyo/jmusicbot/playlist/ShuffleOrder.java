@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.playlist;
+
+import java.util.Random;
+
+/**
+ * A random order of the numbers from 0 to size - 1, worked out one position
+ * at a time instead of being stored. A small Feistel network with random keys
+ * shuffles the smallest power of four that holds every number, and numbers
+ * that fall outside the range are shuffled again until they land in it, which
+ * keeps every number in the range exactly once.
+ *
+ * @author Jellyo
+ */
+class ShuffleOrder
+{
+    private final static int ROUNDS = 4;
+
+    private final int size;
+    private final int half;
+    private final int mask;
+    private final int[] keys = new int[ROUNDS];
+
+    ShuffleOrder(int size, Random random)
+    {
+        this.size = size;
+        int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(size - 1));
+        this.half = (bits + 1) / 2;
+        this.mask = (1 << half) - 1;
+        for(int i=0; i<ROUNDS; i++)
+            keys[i] = random.nextInt();
+    }
+
+    /**
+     * @param position a position in the order, from 0 to size - 1
+     * @return the number at that position
+     */
+    int get(int position)
+    {
+        int value = position;
+        do
+        {
+            value = permute(value);
+        }
+        while(value >= size);
+        return value;
+    }
+
+    private int permute(int value)
+    {
+        int left = value >>> half;
+        int right = value & mask;
+        for(int key: keys)
+        {
+            int next = left ^ (round(right, key) & mask);
+            left = right;
+            right = next;
+        }
+        return (left << half) | right;
+    }
+
+    private static int round(int value, int key)
+    {
+        int h = (value ^ key) * 0x9E3779B1;
+        h ^= h >>> 15;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+}
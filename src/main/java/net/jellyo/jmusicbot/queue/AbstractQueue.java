@@ -15,11 +15,19 @@
  */
 package com.jagrosh.jmusicbot.queue;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
+import com.jagrosh.jmusicbot.queue.IndexedList.Node;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Every method that touches the queue synchronizes on the queue itself, so
+ * callers can make compound operations atomic with {@code synchronized(queue)}.
+ * Readers that only need to look at the whole queue should use
+ * {@link #getSnapshot()}, which returns an immutable snapshot without locking
+ * once it has been built.
  *
  * @author Wolfgang Schwendtbauer
  * @param <T>
@@ -28,90 +36,173 @@ public abstract class AbstractQueue<T extends Queueable>
 {
     protected AbstractQueue(AbstractQueue<T> queue)
     {
-        this.list = queue != null ? queue.getList() : new LinkedList<>();
+        this.list = new QueueList<>(keys);
+        if(queue != null)
+            list.addAll(queue.getList());
     }
 
-    protected final List<T> list;
+    // the keys of every entry, wherever a subclass keeps it
+    protected final KeyIndex keys = new KeyIndex();
+    protected final QueueList<T> list;
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private volatile QueueSnapshot<T> snapshot;
+    private AtomicInteger counter;
+    private int counted;
 
     public abstract int add(T item);
 
-    public void addAt(int index, T item)
+    /**
+     * Adds every item as if by {@link #add(Object)}, in order, but under a
+     * single lock and in a single pass over the queue
+     *
+     * @param items the items to add
+     */
+    public synchronized void addAll(List<T> items)
+    {
+        items.forEach(this::add);
+    }
+
+    public synchronized void addAt(int index, T item)
     {
         if(index >= list.size())
             list.add(item);
         else
             list.add(index, item);
+        modified();
     }
 
-    public int size() {
+    /**
+     * Inserts every item, in order, starting at the given position
+     *
+     * @param index the position of the first item
+     * @param items the items to add
+     */
+    public synchronized void addAllAt(int index, List<T> items)
+    {
+        if(list.addAll(Math.min(index, list.size()), items))
+            modified();
+    }
+
+    public synchronized int size() {
         return list.size();
     }
 
-    public T pull() {
-        return list.remove(0);
+    public synchronized T pull() {
+        T item = list.remove(0);
+        modified();
+        return item;
     }
 
-    public boolean isEmpty()
+    public synchronized boolean isEmpty()
     {
         return list.isEmpty();
     }
 
+    /**
+     * @return an immutable snapshot of the queue, in play order. Repeated
+     * calls return the same instance until the queue is modified.
+     */
+    public QueueSnapshot<T> getSnapshot()
+    {
+        QueueSnapshot<T> current = snapshot;
+        if(current != null)
+            return current;
+        synchronized(this)
+        {
+            if(snapshot == null)
+                snapshot = new QueueSnapshot<>(VERSIONS.incrementAndGet(), toList(), getTotalDuration());
+            return snapshot;
+        }
+    }
+
+    /**
+     * @return the list of the current {@link #getSnapshot() snapshot}
+     */
     public List<T> getList()
     {
-        return list;
+        return getSnapshot().getList();
     }
 
-    public T get(int index) {
+    public synchronized T get(int index) {
         return list.get(index);
     }
 
-    public T remove(int index)
+    public synchronized T remove(int index)
     {
-        return list.remove(index);
+        T item = list.remove(index);
+        modified();
+        return item;
     }
 
-    public int removeAll(long identifier)
+    /**
+     * @param identifier the owner
+     * @return the number of entries in the queue that belong to the owner
+     */
+    public synchronized int count(long identifier)
     {
-        int count = 0;
-        for(int i=list.size()-1; i>=0; i--)
-        {
-            if(list.get(i).getIdentifier()==identifier)
-            {
-                list.remove(i);
-                count++;
-            }
-        }
-        return count;
+        return list.count(identifier);
     }
 
-    public void clear()
+    /**
+     * @return the summed duration of every entry, in O(1)
+     */
+    public synchronized long getTotalDuration()
+    {
+        return list.totalWeight();
+    }
+
+    /**
+     * @param index a position in the queue, up to and including its size
+     * @return the summed duration of the entries that play before it, in O(log n)
+     */
+    public synchronized long getDurationBefore(int index)
+    {
+        return list.weightBefore(index);
+    }
+
+    /**
+     * @param item an entry that may or may not be queued
+     * @return whether an entry that plays the same thing is queued, in O(1)
+     */
+    public synchronized boolean containsDuplicate(T item)
+    {
+        return keys.containsAny(item);
+    }
+
+    public synchronized int removeAll(long identifier)
+    {
+        List<Node<T>> nodes = list.nodesOf(identifier);
+        for(Node<T> node: nodes)
+            list.removeNode(node);
+        modified();
+        return nodes.size();
+    }
+
+    public synchronized void clear()
     {
         list.clear();
+        keys.clear();
+        modified();
     }
 
-    public int shuffle(long identifier)
+    public synchronized int shuffle(long identifier)
     {
-        List<Integer> iset = new ArrayList<>();
-        for(int i=0; i<list.size(); i++)
+        List<Node<T>> nodes = list.nodesOf(identifier);
+        for(int j=0; j<nodes.size(); j++)
         {
-            if(list.get(i).getIdentifier()==identifier)
-                iset.add(i);
+            Node<T> first = nodes.get(j);
+            Node<T> second = nodes.get((int)(Math.random()*nodes.size()));
+            list.setValue(first, list.setValue(second, first.getValue()));
         }
-        for(int j=0; j<iset.size(); j++)
-        {
-            int first = iset.get(j);
-            int second = iset.get((int)(Math.random()*iset.size()));
-            T temp = list.get(first);
-            list.set(first, list.get(second));
-            list.set(second, temp);
-        }
-        return iset.size();
+        modified();
+        return nodes.size();
     }
 
-    public void skip(int number)
+    public synchronized void skip(int number)
     {
         if (number > 0) {
             list.subList(0, number).clear();
+            modified();
         }
     }
 
@@ -121,10 +212,58 @@ public abstract class AbstractQueue<T extends Queueable>
      * @param to The new position of the item
      * @return the moved item
      */
-    public T moveItem(int from, int to)
+    public synchronized T moveItem(int from, int to)
     {
         T item = list.remove(from);
         list.add(to, item);
+        modified();
         return item;
     }
+
+    /**
+     * Keeps a counter, which may be shared between queues, in step with the
+     * size of this queue. This lets sizes be summed over many queues in O(1).
+     *
+     * @param counter the counter, or null to stop counting this queue
+     */
+    public synchronized void setCounter(AtomicInteger counter)
+    {
+        if(this.counter != null)
+            this.counter.addAndGet(-counted);
+        this.counter = counter;
+        this.counted = 0;
+        if(counter != null)
+        {
+            counted = size();
+            counter.addAndGet(counted);
+        }
+    }
+
+    /**
+     * Must be called, while holding the lock, after every modification
+     */
+    protected void modified()
+    {
+        snapshot = null;
+        if(counter != null)
+        {
+            int size = size();
+            counter.addAndGet(size - counted);
+            counted = size;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> toList()
+    {
+        return (List<T>) (List<?>) Collections.unmodifiableList(Arrays.asList(toArray()));
+    }
+
+    /**
+     * @return the entries of the queue in play order; called while holding the lock
+     */
+    protected Object[] toArray()
+    {
+        return list.toArray();
+    }
 }
@@ -15,40 +15,230 @@
  */
 package com.jagrosh.jmusicbot.queue;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
+ * A queue that plays one entry per requester in turn. Entries are kept in a
+ * round-robin ring of per-requester deques, so adding and pulling are O(1);
+ * the flattened play order is only built when someone reads it.
  *
  * @author John Grosh (jagrosh)
  * @param <T>
  */
-public class FairQueue<T extends Queueable> extends AbstractQueue<T>
+public class FairQueue<T extends Queueable> extends ScheduledQueue<T>
 {
+    // iteration order is the ring order; the first owner plays next
+    private final LinkedHashMap<Long, Lane<T>> ring = new LinkedHashMap<>();
+    private int ringSize = 0;
+    private long ringDuration = 0;
+
     public FairQueue(AbstractQueue<T> queue)
     {
-        super(queue);
+        adopt(queue);
+    }
+
+    @Override
+    protected void schedule(T item)
+    {
+        ring.computeIfAbsent(item.getIdentifier(), id -> new Lane<>()).add(item);
+        ringSize++;
+        ringDuration += item.getDuration();
+    }
+
+    /**
+     * Pulls the head of the ring and rotates its owner to the back of the ring
+     */
+    @Override
+    protected T unschedule()
+    {
+        Iterator<Map.Entry<Long, Lane<T>>> it = ring.entrySet().iterator();
+        Map.Entry<Long, Lane<T>> head = it.next();
+        T item = head.getValue().poll();
+        it.remove();
+        if(!head.getValue().isEmpty())
+            ring.put(head.getKey(), head.getValue());
+        ringSize--;
+        ringDuration -= item.getDuration();
+        return item;
+    }
+
+    /**
+     * The owner keeps their place in the ring unless this empties their lane
+     */
+    @Override
+    protected void unschedule(T item)
+    {
+        Lane<T> lane = ring.get(item.getIdentifier());
+        ringDuration -= lane.getDuration();
+        lane.remove(item);
+        ringSize--;
+        if(lane.isEmpty())
+            ring.remove(item.getIdentifier());
+        else
+            ringDuration += lane.getDuration();
+    }
+
+    @Override
+    protected List<T> unscheduleAll(long identifier)
+    {
+        Lane<T> lane = ring.remove(identifier);
+        if(lane == null)
+            return Collections.emptyList();
+        ringSize -= lane.size();
+        ringDuration -= lane.getDuration();
+        return lane.toList();
     }
 
-    protected final Set<Long> set = new HashSet<>();
+    @Override
+    protected Lane<T> laneOf(long identifier)
+    {
+        return ring.get(identifier);
+    }
 
     @Override
-    public int add(T item)
+    protected void setLane(long identifier, List<T> items)
     {
-        int lastIndex;
-        for(lastIndex=list.size()-1; lastIndex>-1; lastIndex--)
-            if(list.get(lastIndex).getIdentifier() == item.getIdentifier())
-                break;
-        lastIndex++;
-        set.clear();
-        for(; lastIndex<list.size(); lastIndex++)
+        Lane<T> lane = ring.get(identifier);
+        if(lane == null)
+            return;
+        ringDuration -= lane.getDuration();
+        lane.reset(items);
+        ringDuration += lane.getDuration();
+    }
+
+    @Override
+    protected void clearSchedule()
+    {
+        ring.clear();
+        ringSize = 0;
+        ringDuration = 0;
+    }
+
+    @Override
+    protected int scheduledSize()
+    {
+        return ringSize;
+    }
+
+    @Override
+    protected long scheduledDuration()
+    {
+        return ringDuration;
+    }
+
+    /**
+     * Each round plays one slot per owner in ring order, so a new entry by an
+     * owner with c entries gets a slot in round c. This is O(owners).
+     */
+    @Override
+    protected int scheduledPosition(T item)
+    {
+        Lane<T> own = ring.get(item.getIdentifier());
+        return position(own, own == null ? 0 : own.size());
+    }
+
+    @Override
+    protected int scheduledPosition(Lane<T> lane, int slot)
+    {
+        return position(lane, slot);
+    }
+
+    /**
+     * The number of full rounds before the cut is found by binary search,
+     * and each owner's share of them is read from its lane's running totals;
+     * the round the cut falls in is then walked in ring order. This is
+     * O(owners * log n) rather than O(log n), since the owners interleave.
+     */
+    @Override
+    protected Cut<T> cut(int count)
+    {
+        int low = 0, high = 0;
+        for(Lane<T> lane: ring.values())
+            high = Math.max(high, lane.size());
+        // the largest number of full rounds that fit in count entries
+        while(low < high)
         {
-            if(set.contains(list.get(lastIndex).getIdentifier()))
-                break;
-            set.add(list.get(lastIndex).getIdentifier());
+            int mid = (low + high + 1) >>> 1;
+            if(entriesInRounds(mid) <= count)
+                low = mid;
+            else
+                high = mid - 1;
         }
-        list.add(lastIndex, item);
-        return lastIndex;
+        int extra = count - entriesInRounds(low);
+        long duration = 0;
+        for(Lane<T> lane: ring.values())
+            duration += lane.playtimeOf(Math.min(lane.size(), low));
+        for(Lane<T> lane: ring.values())
+        {
+            if(lane.size() <= low)
+                continue;
+            int entries = lane.entriesOf(low + 1) - lane.entriesOf(low);
+            if(extra < entries)
+                return new Cut<>(duration, lane, low, extra);
+            extra -= entries;
+            duration += lane.playtimeOf(low + 1) - lane.playtimeOf(low);
+        }
+        return new Cut<>(duration, null, 0, 0);
+    }
+
+    /**
+     * @param own an owner's lane, or null for an owner joining the ring
+     * @param slot one of its slots, or where its next entry would go
+     * @return how many entries play before that slot
+     */
+    private int position(Lane<T> own, int slot)
+    {
+        boolean before = true;
+        int position = 0;
+        for(Lane<T> lane: ring.values())
+        {
+            if(lane == own)
+            {
+                before = false;
+                position += lane.entriesOf(slot);
+                continue;
+            }
+            int size = lane.size();
+            position += lane.entriesOf(Math.min(size, slot));
+            if(before && size > slot)
+                position += lane.entriesOf(slot + 1) - lane.entriesOf(slot);
+        }
+        return position;
+    }
+
+    private int entriesInRounds(int rounds)
+    {
+        int entries = 0;
+        for(Lane<T> lane: ring.values())
+            entries += lane.entriesOf(Math.min(lane.size(), rounds));
+        return entries;
     }
 
+    @Override
+    protected Object[] scheduledOrder()
+    {
+        Object[] items = new Object[ringSize];
+        List<Iterator<T>> iterators = new ArrayList<>(ring.size());
+        ring.values().forEach(lane -> iterators.add(lane.iterator()));
+        int index = 0;
+        while(!iterators.isEmpty())
+        {
+            int kept = 0;
+            for(Iterator<T> it: iterators)
+            {
+                if(it.hasNext())
+                {
+                    items[index++] = it.next();
+                    iterators.set(kept++, it);
+                }
+            }
+            iterators.subList(kept, iterators.size()).clear();
+        }
+        return items;
+    }
 }
@@ -0,0 +1,504 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.queue;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A list backed by an implicit treap (a randomized balanced binary tree keyed
+ * by position). Positional reads, inserts, removals and range removals are all
+ * O(log n), and iteration is O(n), which keeps large queues responsive.
+ *
+ * Every node also carries the summed {@link #weightOf(Object) weight} of its
+ * subtree, so the total weight and the weight before any position are O(log n).
+ *
+ * @author Jellyo
+ * @param <T>
+ */
+public class IndexedList<T> extends AbstractList<T>
+{
+    private Node<T> root;
+    private int seed = 0x2545F491;
+
+    // scratch results of split(), kept as fields to avoid allocating a pair
+    private Node<T> splitLeft, splitRight;
+
+    public IndexedList()
+    {
+    }
+
+    public IndexedList(Collection<? extends T> items)
+    {
+        addAll(items);
+    }
+
+    @Override
+    public int size()
+    {
+        return size(root);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return root == null;
+    }
+
+    @Override
+    public T get(int index)
+    {
+        return node(index).value;
+    }
+
+    @Override
+    public T set(int index, T item)
+    {
+        return setValue(node(index), item);
+    }
+
+    @Override
+    public boolean add(T item)
+    {
+        Node<T> node = new Node<>(item, weightOf(item), nextPriority());
+        root = merge(root, node);
+        root.parent = null;
+        modCount++;
+        linked(node);
+        return true;
+    }
+
+    @Override
+    public void add(int index, T item)
+    {
+        checkPositionIndex(index);
+        Node<T> node = new Node<>(item, weightOf(item), nextPriority());
+        split(root, index);
+        Node<T> right = splitRight;
+        root = merge(merge(splitLeft, node), right);
+        root.parent = null;
+        modCount++;
+        linked(node);
+    }
+
+    /**
+     * Appends the items in O(k + log n)
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> items)
+    {
+        return addAll(size(), items);
+    }
+
+    /**
+     * Inserts the items in O(k + log n): the batch is built into a treap of
+     * its own in one pass and then merged in at the given position.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> items)
+    {
+        checkPositionIndex(index);
+        if(items.isEmpty())
+            return false;
+        List<Node<T>> nodes = new ArrayList<>(items.size());
+        List<Node<T>> spine = new ArrayList<>();
+        for(T item: items)
+        {
+            Node<T> node = new Node<>(item, weightOf(item), nextPriority());
+            Node<T> last = null;
+            while(!spine.isEmpty() && spine.get(spine.size()-1).priority < node.priority)
+            {
+                last = spine.remove(spine.size()-1);
+                update(last);
+            }
+            node.left = last;
+            if(!spine.isEmpty())
+                spine.get(spine.size()-1).right = node;
+            spine.add(node);
+            nodes.add(node);
+        }
+        for(int i=spine.size()-1; i>=0; i--)
+            update(spine.get(i));
+        Node<T> batch = spine.get(0);
+        batch.parent = null;
+        split(root, index);
+        Node<T> right = splitRight;
+        root = merge(merge(splitLeft, batch), right);
+        root.parent = null;
+        modCount++;
+        nodes.forEach(this::linked);
+        return true;
+    }
+
+    @Override
+    public T remove(int index)
+    {
+        checkElementIndex(index);
+        split(root, index);
+        Node<T> left = splitLeft;
+        split(splitRight, 1);
+        Node<T> removed = splitLeft;
+        root = merge(left, splitRight);
+        if(root != null)
+            root.parent = null;
+        modCount++;
+        unlinked(removed);
+        return removed.value;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex)
+    {
+        if(fromIndex >= toIndex)
+            return;
+        split(root, toIndex);
+        Node<T> right = splitRight;
+        split(splitLeft, fromIndex);
+        Node<T> removed = splitRight;
+        root = merge(splitLeft, right);
+        if(root != null)
+            root.parent = null;
+        modCount++;
+        unlinkAll(removed);
+    }
+
+    @Override
+    public void clear()
+    {
+        root = null;
+        modCount++;
+        cleared();
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new Itr();
+    }
+
+    /**
+     * @return the summed weight of every item, in O(1)
+     */
+    public long totalWeight()
+    {
+        return sum(root);
+    }
+
+    /**
+     * @param index a position in this list, up to and including its size
+     * @return the summed weight of the items before that position, in O(log n)
+     */
+    public long weightBefore(int index)
+    {
+        checkPositionIndex(index);
+        long weight = 0;
+        Node<T> node = root;
+        while(node != null)
+        {
+            int leftSize = size(node.left);
+            if(index <= leftSize)
+                node = node.left;
+            else
+            {
+                weight += sum(node.left) + node.weight;
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * @param node a node of this list
+     * @return the current position of the node, in O(log n)
+     */
+    public int positionOf(Node<T> node)
+    {
+        int index = size(node.left);
+        for(; node.parent != null; node = node.parent)
+            if(node == node.parent.right)
+                index += size(node.parent.left) + 1;
+        return index;
+    }
+
+    /**
+     * Removes the given node of this list, in O(log n)
+     *
+     * @param node a node of this list
+     * @return the removed item
+     */
+    public T removeNode(Node<T> node)
+    {
+        return remove(positionOf(node));
+    }
+
+    /**
+     * Replaces the item held by the given node of this list
+     *
+     * @param node a node of this list
+     * @param item the new item
+     * @return the previous item
+     */
+    public T setValue(Node<T> node, T item)
+    {
+        unlinked(node);
+        T previous = node.value;
+        node.value = item;
+        node.weight = weightOf(item);
+        for(Node<T> n = node; n != null; n = n.parent)
+            n.sum = n.weight + sum(n.left) + sum(n.right);
+        linked(node);
+        return previous;
+    }
+
+    /**
+     * The weight of an item, summed by {@link #totalWeight()} and
+     * {@link #weightBefore(int)}. Lists that do not weigh their items keep 0.
+     */
+    protected long weightOf(T item)
+    {
+        return 0;
+    }
+
+    // Hooks for lists that index their nodes
+    /**
+     * Called after a node has been inserted or has received a new item
+     */
+    protected void linked(Node<T> node)
+    {
+    }
+
+    /**
+     * Called after a node has been removed, or before it receives a new item
+     */
+    protected void unlinked(Node<T> node)
+    {
+    }
+
+    /**
+     * Called after the list has been cleared, instead of unlinking every node
+     */
+    protected void cleared()
+    {
+    }
+
+    private void unlinkAll(Node<T> node)
+    {
+        if(node == null)
+            return;
+        unlinkAll(node.left);
+        unlinked(node);
+        unlinkAll(node.right);
+    }
+
+    // Tree internals
+    private Node<T> node(int index)
+    {
+        checkElementIndex(index);
+        Node<T> node = root;
+        while(true)
+        {
+            int leftSize = size(node.left);
+            if(index < leftSize)
+                node = node.left;
+            else if(index == leftSize)
+                return node;
+            else
+            {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private Node<T> merge(Node<T> a, Node<T> b)
+    {
+        if(a == null)
+            return b;
+        if(b == null)
+            return a;
+        if(a.priority > b.priority)
+        {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    /**
+     * Splits the subtree into its first {@code count} nodes (splitLeft) and the
+     * rest (splitRight). Both resulting roots are detached from their parents.
+     */
+    private void split(Node<T> node, int count)
+    {
+        if(node == null)
+        {
+            splitLeft = splitRight = null;
+            return;
+        }
+        node.parent = null;
+        if(size(node.left) < count)
+        {
+            split(node.right, count - size(node.left) - 1);
+            node.right = splitLeft;
+            update(node);
+            splitLeft = node;
+        }
+        else
+        {
+            split(node.left, count);
+            node.left = splitRight;
+            update(node);
+            splitRight = node;
+        }
+        if(splitLeft != null)
+            splitLeft.parent = null;
+        if(splitRight != null)
+            splitRight.parent = null;
+    }
+
+    private void update(Node<T> node)
+    {
+        node.size = 1 + size(node.left) + size(node.right);
+        node.sum = node.weight + sum(node.left) + sum(node.right);
+        if(node.left != null)
+            node.left.parent = node;
+        if(node.right != null)
+            node.right.parent = node;
+    }
+
+    private int nextPriority()
+    {
+        // xorshift; good enough to keep the treap balanced
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private void checkElementIndex(int index)
+    {
+        if(index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size());
+    }
+
+    private void checkPositionIndex(int index)
+    {
+        if(index < 0 || index > size())
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size());
+    }
+
+    private static int size(Node<?> node)
+    {
+        return node == null ? 0 : node.size;
+    }
+
+    private static long sum(Node<?> node)
+    {
+        return node == null ? 0 : node.sum;
+    }
+
+    private static <T> Node<T> first(Node<T> node)
+    {
+        if(node != null)
+            while(node.left != null)
+                node = node.left;
+        return node;
+    }
+
+    private static <T> Node<T> successor(Node<T> node)
+    {
+        if(node.right != null)
+            return first(node.right);
+        Node<T> parent = node.parent;
+        while(parent != null && node == parent.right)
+        {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    public static class Node<T>
+    {
+        private T value;
+        private final int priority;
+        private int size = 1;
+        private long weight, sum;
+        private Node<T> left, right, parent;
+
+        private Node(T value, long weight, int priority)
+        {
+            this.value = value;
+            this.weight = this.sum = weight;
+            this.priority = priority;
+        }
+
+        public T getValue()
+        {
+            return value;
+        }
+    }
+
+    private class Itr implements Iterator<T>
+    {
+        private Node<T> next = first(root);
+        private int nextIndex = 0;
+        private int lastIndex = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            return next != null;
+        }
+
+        @Override
+        public T next()
+        {
+            if(modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if(next == null)
+                throw new NoSuchElementException();
+            T value = next.value;
+            next = successor(next);
+            lastIndex = nextIndex++;
+            return value;
+        }
+
+        @Override
+        public void remove()
+        {
+            if(lastIndex < 0)
+                throw new IllegalStateException();
+            if(modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            // nodes survive split/merge, so 'next' stays valid across the removal
+            IndexedList.this.remove(lastIndex);
+            nextIndex = lastIndex;
+            lastIndex = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
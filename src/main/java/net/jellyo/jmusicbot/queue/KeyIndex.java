@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.queue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the {@link Queueable#getKeys() keys} of every entry in a queue, so
+ * that whether something is already queued is O(1) no matter how long the
+ * queue is.
+ *
+ * @author Jellyo
+ */
+class KeyIndex
+{
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    public void add(Queueable item)
+    {
+        for(String key: item.getKeys())
+            counts.merge(key, 1, Integer::sum);
+    }
+
+    public void remove(Queueable item)
+    {
+        for(String key: item.getKeys())
+            counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * @param item an entry that may or may not be queued
+     * @return whether any queued entry shares a key with the given one
+     */
+    public boolean containsAny(Queueable item)
+    {
+        for(String key: item.getKeys())
+            if(counts.containsKey(key))
+                return true;
+        return false;
+    }
+
+    public void clear()
+    {
+        counts.clear();
+    }
+}
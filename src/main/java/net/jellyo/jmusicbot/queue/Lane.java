@@ -0,0 +1,318 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.queue;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * One owner's entries in a {@link ScheduledQueue}. Each entry holds a slot in
+ * the schedule, and entries pinned behind it play in the same slot, right
+ * after it. Running totals are kept both of the owner's own durations, which
+ * the schedule goes by, and of the number and durations of everything each
+ * slot plays, so either is O(1) for the first k slots.
+ *
+ * @author Jellyo
+ * @param <T>
+ */
+class Lane<T extends Queueable> implements Iterable<T>
+{
+    // a ring buffer of slots; the running totals at (start + i) & mask are
+    // those up to and including slot i since the lane was last rebuilt
+    private Object[] items = new Object[4];
+    private long[] ends = new long[4];
+    private int[] counts = new int[4];
+    private long[] weights = new long[4];
+    // what is pinned behind each slot
+    private int[] pinnedCounts = new int[4];
+    private long[] pinnedDurations = new long[4];
+    private int start = 0, size = 0;
+    private long added = 0, pulled = 0;
+    private int countAdded = 0, countPulled = 0;
+    private long weightAdded = 0, weightPulled = 0;
+    // the slots that have entries pinned behind them, by how many slots had been polled before them
+    private final Map<T, Long> numbers = new IdentityHashMap<>();
+    private long polled = 0;
+
+    public void add(T item)
+    {
+        if(size == items.length)
+            grow();
+        int i = (start + size) & (items.length - 1);
+        items[i] = item;
+        pinnedCounts[i] = 0;
+        pinnedDurations[i] = 0;
+        added += item.getDuration();
+        countAdded++;
+        weightAdded += item.getDuration();
+        ends[i] = added;
+        counts[i] = countAdded;
+        weights[i] = weightAdded;
+        size++;
+    }
+
+    public T peek()
+    {
+        return size == 0 ? null : get(0);
+    }
+
+    /**
+     * Takes the first slot out of the lane; anything pinned behind it goes with it
+     */
+    public T poll()
+    {
+        T item = get(0);
+        pulled += item.getDuration();
+        countPulled += 1 + pinnedCounts[start];
+        weightPulled += item.getDuration() + pinnedDurations[start];
+        if(pinnedCounts[start] > 0)
+            numbers.remove(item);
+        items[start] = null;
+        start = (start + 1) & (items.length - 1);
+        size--;
+        polled++;
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int slot)
+    {
+        if(slot < 0 || slot >= size)
+            throw new IndexOutOfBoundsException("Slot: "+slot+", Size: "+size);
+        return (T) items[(start + slot) & (items.length - 1)];
+    }
+
+    /**
+     * @param item an entry of this lane that has entries pinned behind it
+     * @return the slot it holds, or -1 if it is not such an entry
+     */
+    public int indexOf(T item)
+    {
+        Long number = numbers.get(item);
+        return number == null ? -1 : (int) (number - polled);
+    }
+
+    /**
+     * Counts entries pinned behind a slot, or no longer pinned behind it.
+     * This is O(size - slot).
+     *
+     * @param slot the slot
+     * @param count how many more entries are pinned behind it
+     * @param duration how much longer those entries are
+     */
+    public void regroup(int slot, int count, long duration)
+    {
+        int mask = items.length - 1;
+        int i = (start + slot) & mask;
+        boolean had = pinnedCounts[i] > 0;
+        pinnedCounts[i] += count;
+        pinnedDurations[i] += duration;
+        if(!had && pinnedCounts[i] > 0)
+            numbers.put(get(slot), polled + slot);
+        else if(had && pinnedCounts[i] == 0)
+            numbers.remove(get(slot));
+        for(int j=slot; j<size; j++)
+        {
+            counts[(start + j) & mask] += count;
+            weights[(start + j) & mask] += duration;
+        }
+        countAdded += count;
+        weightAdded += duration;
+    }
+
+    /**
+     * Takes an entry out of the lane, along with anything still counted as
+     * pinned behind it; this is O(size)
+     */
+    public void remove(T item)
+    {
+        List<T> kept = new ArrayList<>(size);
+        int[] keptCounts = new int[size];
+        long[] keptDurations = new long[size];
+        for(int j=0; j<size; j++)
+        {
+            T other = get(j);
+            if(other == item)
+                continue;
+            int i = (start + j) & (items.length - 1);
+            keptCounts[kept.size()] = pinnedCounts[i];
+            keptDurations[kept.size()] = pinnedDurations[i];
+            kept.add(other);
+        }
+        rebuild(kept, keptCounts, keptDurations);
+    }
+
+    /**
+     * Puts other entries in the slots, one for one, leaving what is pinned
+     * behind each slot where it is
+     */
+    public void reset(List<T> entries)
+    {
+        if(entries.size() != size)
+            throw new IllegalArgumentException("Expected "+size+" entries, got "+entries.size());
+        int[] keptCounts = new int[size];
+        long[] keptDurations = new long[size];
+        for(int j=0; j<size; j++)
+        {
+            int i = (start + j) & (items.length - 1);
+            keptCounts[j] = pinnedCounts[i];
+            keptDurations[j] = pinnedDurations[i];
+        }
+        rebuild(entries, keptCounts, keptDurations);
+    }
+
+    /**
+     * @return the summed duration of the lane's own entries in the first {@code slots} slots
+     */
+    public long durationOf(int slots)
+    {
+        return slots == 0 ? 0 : ends[(start + slots - 1) & (items.length - 1)] - pulled;
+    }
+
+    /**
+     * @return how many entries play in the first {@code slots} slots, counting pinned ones
+     */
+    public int entriesOf(int slots)
+    {
+        return slots == 0 ? 0 : counts[(start + slots - 1) & (items.length - 1)] - countPulled;
+    }
+
+    /**
+     * @return the summed duration of everything that plays in the first {@code slots} slots
+     */
+    public long playtimeOf(int slots)
+    {
+        return slots == 0 ? 0 : weights[(start + slots - 1) & (items.length - 1)] - weightPulled;
+    }
+
+    /**
+     * @return how many slots from the front fit in the given duration of the
+     * lane's own entries
+     */
+    public int countWithin(long duration)
+    {
+        int low = 0, high = size;
+        while(low < high)
+        {
+            int mid = (low + high + 1) >>> 1;
+            if(durationOf(mid) <= duration)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        return low;
+    }
+
+    /**
+     * @return the summed duration of the lane's own entries
+     */
+    public long getDuration()
+    {
+        return added - pulled;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public List<T> toList()
+    {
+        List<T> list = new ArrayList<>(size);
+        forEach(list::add);
+        return list;
+    }
+
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new Iterator<T>()
+        {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return next < size;
+            }
+
+            @Override
+            public T next()
+            {
+                if(next >= size)
+                    throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    private void rebuild(List<T> entries, int[] keptCounts, long[] keptDurations)
+    {
+        int capacity = items.length;
+        while(capacity < entries.size())
+            capacity *= 2;
+        if(capacity != items.length)
+            allocate(capacity);
+        start = size = 0;
+        added = pulled = weightAdded = weightPulled = 0;
+        countAdded = countPulled = 0;
+        numbers.clear();
+        for(T entry: entries)
+            add(entry);
+        for(int j=0; j<size; j++)
+            if(keptCounts[j] != 0 || keptDurations[j] != 0)
+                regroup(j, keptCounts[j], keptDurations[j]);
+    }
+
+    private void grow()
+    {
+        Object[] oldItems = items;
+        long[] oldEnds = ends, oldWeights = weights, oldDurations = pinnedDurations;
+        int[] oldCounts = counts, oldPinned = pinnedCounts;
+        int mask = oldItems.length - 1;
+        allocate(oldItems.length * 2);
+        for(int j=0; j<size; j++)
+        {
+            int i = (start + j) & mask;
+            items[j] = oldItems[i];
+            ends[j] = oldEnds[i];
+            counts[j] = oldCounts[i];
+            weights[j] = oldWeights[i];
+            pinnedCounts[j] = oldPinned[i];
+            pinnedDurations[j] = oldDurations[i];
+        }
+        start = 0;
+    }
+
+    private void allocate(int capacity)
+    {
+        items = new Object[capacity];
+        ends = new long[capacity];
+        counts = new int[capacity];
+        weights = new long[capacity];
+        pinnedCounts = new int[capacity];
+        pinnedDurations = new long[capacity];
+    }
+}
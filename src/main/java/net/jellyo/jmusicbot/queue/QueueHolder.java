@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.queue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds a guild's queue, which is replaced when the queue type changes.
+ * Anything that changes the queue does so while holding this holder's lock,
+ * with {@code synchronized(holder)}, and takes the queue from {@link #get()}
+ * once it has the lock. The queue is replaced under the same lock, so a
+ * change is never made to a queue that has just been copied and dropped.
+ * Readers can use {@link #get()} without locking.
+ *
+ * @author Jellyo
+ * @param <T>
+ */
+public class QueueHolder<T extends Queueable>
+{
+    private final AtomicInteger counter;
+    private volatile AbstractQueue<T> queue;
+
+    /**
+     * @param supplier creates the first queue
+     * @param counter the counter to keep in step with the queue's size, or null
+     */
+    public QueueHolder(QueueSupplier supplier, AtomicInteger counter)
+    {
+        this.counter = counter;
+        this.queue = supplier.apply(null);
+        queue.setCounter(counter);
+    }
+
+    /**
+     * @return the current queue
+     */
+    public AbstractQueue<T> get()
+    {
+        return queue;
+    }
+
+    /**
+     * Replaces the queue with one created from it, such as one of another type
+     *
+     * @param supplier creates the new queue from the current one
+     */
+    public synchronized void replace(QueueSupplier supplier)
+    {
+        AbstractQueue<T> previous = queue;
+        AbstractQueue<T> next = supplier.apply(previous);
+        previous.setCounter(null);
+        next.setCounter(counter);
+        queue = next;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.queue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The list behind every queue. On top of positional access it keeps an
+ * owner to nodes index, so per-owner lookups cost as much as the number of
+ * entries that owner has rather than the size of the queue. Items are
+ * weighted by their duration, and their keys are counted in the queue's
+ * {@link KeyIndex}.
+ *
+ * @author Jellyo
+ * @param <T>
+ */
+class QueueList<T extends Queueable> extends IndexedList<T>
+{
+    private final Map<Long, Set<Node<T>>> owners = new HashMap<>();
+    private final KeyIndex keys;
+
+    /**
+     * @param keys the key index of the whole queue, which this list adds its
+     * entries to
+     */
+    QueueList(KeyIndex keys)
+    {
+        this.keys = keys;
+    }
+
+    /**
+     * @param identifier the owner
+     * @return how many entries of this list belong to the owner, in O(1)
+     */
+    public int count(long identifier)
+    {
+        Set<Node<T>> nodes = owners.get(identifier);
+        return nodes == null ? 0 : nodes.size();
+    }
+
+    /**
+     * @param identifier the owner
+     * @return a copy of the nodes that belong to the owner, in no particular order
+     */
+    public List<Node<T>> nodesOf(long identifier)
+    {
+        Set<Node<T>> nodes = owners.get(identifier);
+        return nodes == null ? Collections.emptyList() : new ArrayList<>(nodes);
+    }
+
+    @Override
+    protected long weightOf(T item)
+    {
+        return item.getDuration();
+    }
+
+    @Override
+    protected void linked(Node<T> node)
+    {
+        owners.computeIfAbsent(node.getValue().getIdentifier(), id -> new HashSet<>()).add(node);
+        keys.add(node.getValue());
+    }
+
+    @Override
+    protected void unlinked(Node<T> node)
+    {
+        long identifier = node.getValue().getIdentifier();
+        Set<Node<T>> nodes = owners.get(identifier);
+        if(nodes != null && nodes.remove(node) && nodes.isEmpty())
+            owners.remove(identifier);
+        keys.remove(node.getValue());
+    }
+
+    @Override
+    protected void cleared()
+    {
+        // only the whole queue is ever cleared, which clears the key index itself
+        owners.clear();
+    }
+}
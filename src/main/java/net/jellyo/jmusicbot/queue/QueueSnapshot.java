@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.queue;
+
+import java.util.List;
+
+/**
+ * An immutable view of a queue at one point in time. Versions are unique
+ * across all queues, so anything derived from a snapshot can be cached by
+ * its version and reused until the queue changes.
+ *
+ * @author Jellyo
+ * @param <T>
+ */
+public class QueueSnapshot<T extends Queueable>
+{
+    private final long version;
+    private final List<T> list;
+    private final long totalDuration;
+
+    QueueSnapshot(long version, List<T> list, long totalDuration)
+    {
+        this.version = version;
+        this.list = list;
+        this.totalDuration = totalDuration;
+    }
+
+    public long getVersion()
+    {
+        return version;
+    }
+
+    public List<T> getList()
+    {
+        return list;
+    }
+
+    /**
+     * @return the summed duration of the entries, as it was when the snapshot was taken
+     */
+    public long getTotalDuration()
+    {
+        return totalDuration;
+    }
+
+    public int size()
+    {
+        return list.size();
+    }
+
+    public T get(int index)
+    {
+        return list.get(index);
+    }
+
+    public boolean isEmpty()
+    {
+        return list.isEmpty();
+    }
+}
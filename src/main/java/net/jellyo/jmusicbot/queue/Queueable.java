@@ -15,6 +15,9 @@
  */
 package com.jagrosh.jmusicbot.queue;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  *
  * @author John Grosh <john.a.grosh@gmail.com>
@@ -22,4 +25,21 @@ package com.jagrosh.jmusicbot.queue;
 public interface Queueable {
     
     public long getIdentifier();
+
+    /**
+     * @return how long the entry plays for in milliseconds, or 0 if unknown
+     */
+    public default long getDuration()
+    {
+        return 0;
+    }
+
+    /**
+     * @return what the entry plays, as keys that two entries playing the same
+     * thing have in common; entries without keys are never duplicates
+     */
+    public default List<String> getKeys()
+    {
+        return Collections.emptyList();
+    }
 }
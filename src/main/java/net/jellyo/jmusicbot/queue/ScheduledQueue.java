@@ -0,0 +1,612 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.queue;
+
+import com.jagrosh.jmusicbot.queue.IndexedList.Node;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A queue whose play order is worked out from per-requester lanes by a
+ * schedule rather than stored, so that adding and pulling stay cheap and
+ * every requester keeps their turn.
+ *
+ * Entries placed at an explicit position (addAt, moveItem) are kept out of
+ * the schedule. If they play before every scheduled entry they go in the
+ * inherited list in front of it; otherwise they are pinned to play right
+ * after the entry they were placed behind, in the slot of the scheduled
+ * entry that plays before them, and follow that entry wherever the schedule
+ * moves it. Removing an entry takes it out of its lane, as if it had never
+ * been queued. Neither freezes anyone else's place in the schedule.
+ *
+ * Lanes count what is pinned into each of their slots, so a position is
+ * found from the schedule's bookkeeping in O(owners * log n) whether or not
+ * anything is pinned, and the play order is only built for snapshots.
+ *
+ * @author Jellyo
+ * @param <T>
+ */
+public abstract class ScheduledQueue<T extends Queueable> extends AbstractQueue<T>
+{
+    // the entries pinned into each slot after its scheduled entry, in play order
+    private final Map<T, List<T>> pins = new IdentityHashMap<>();
+    // the scheduled entry whose slot each pinned entry plays in
+    private final Map<T, T> anchors = new IdentityHashMap<>();
+    private final Map<Long, Integer> pinnedCounts = new HashMap<>();
+    private long pinnedDuration = 0;
+
+    protected ScheduledQueue()
+    {
+        super(null);
+    }
+
+    /**
+     * Takes in the entries of the queue this one replaces; subclasses call
+     * this once they are set up. Entries that queue kept out of its schedule
+     * keep their places: those in front of it stay in front, and pinned ones
+     * are pinned behind the same entries. Every other entry is scheduled as
+     * if it had just been added, in the order it would have played, so a
+     * queue that had no schedule is shared out fairly from then on.
+     *
+     * @param queue the queue being replaced, or null
+     */
+    @SuppressWarnings("unchecked")
+    protected final void adopt(AbstractQueue<T> queue)
+    {
+        if(queue == null)
+            return;
+        synchronized(queue)
+        {
+            if(!(queue instanceof ScheduledQueue))
+            {
+                for(T item: queue.getList())
+                {
+                    schedule(item);
+                    keys.add(item);
+                }
+                modified();
+                return;
+            }
+            ScheduledQueue<T> previous = (ScheduledQueue<T>) queue;
+            list.addAll(previous.list);
+            // an owner's entries play in lane order, so counting them gives each one's slot
+            Map<Long, Integer> slots = new HashMap<>();
+            for(Object o: previous.scheduledOrder())
+            {
+                T item = (T) o;
+                schedule(item);
+                keys.add(item);
+                int slot = slots.merge(item.getIdentifier(), 1, Integer::sum) - 1;
+                List<T> pinned = previous.pins.get(item);
+                if(pinned == null)
+                    continue;
+                pins.put(item, new ArrayList<>(pinned));
+                for(T other: pinned)
+                {
+                    anchors.put(other, item);
+                    pinnedCounts.merge(other.getIdentifier(), 1, Integer::sum);
+                    keys.add(other);
+                }
+                pinnedDuration += durationOf(pinned);
+                laneOf(item.getIdentifier()).regroup(slot, pinned.size(), durationOf(pinned));
+            }
+            modified();
+        }
+    }
+
+    /**
+     * Adds an entry to the end of its owner's lane
+     */
+    protected abstract void schedule(T item);
+
+    /**
+     * @return the scheduled entry that plays next, taken out of its lane
+     */
+    protected abstract T unschedule();
+
+    /**
+     * Takes an entry out of its owner's lane
+     */
+    protected abstract void unschedule(T item);
+
+    /**
+     * Takes an owner's lane out of the schedule
+     *
+     * @return the entries that were in it
+     */
+    protected abstract List<T> unscheduleAll(long identifier);
+
+    /**
+     * @return the owner's lane, or null if they have nothing scheduled
+     */
+    protected abstract Lane<T> laneOf(long identifier);
+
+    /**
+     * Replaces the entries of an owner's lane, keeping its place in the schedule
+     */
+    protected abstract void setLane(long identifier, List<T> items);
+
+    protected abstract void clearSchedule();
+
+    protected abstract int scheduledSize();
+
+    protected abstract long scheduledDuration();
+
+    /**
+     * @return the scheduled entries in the order they will play
+     */
+    protected abstract Object[] scheduledOrder();
+
+    /**
+     * @param item an entry that is about to be scheduled
+     * @return how many entries, pinned ones included, play before it once it is
+     */
+    protected abstract int scheduledPosition(T item);
+
+    /**
+     * @return how many entries, pinned ones included, play before the given slot
+     */
+    protected abstract int scheduledPosition(Lane<T> lane, int slot);
+
+    /**
+     * @param count a number of entries, pinned ones included
+     * @return the slot that the entry after the first {@code count} plays in
+     */
+    protected abstract Cut<T> cut(int count);
+
+    /**
+     * Where in the schedule a number of entries ends
+     */
+    protected static class Cut<T extends Queueable>
+    {
+        // the summed duration of the slots played in full
+        private final long duration;
+        // the slot the next entry plays in, and how many of that slot's entries come before it; null at the end
+        private final Lane<T> lane;
+        private final int slot, offset;
+
+        Cut(long duration, Lane<T> lane, int slot, int offset)
+        {
+            this.duration = duration;
+            this.lane = lane;
+            this.slot = slot;
+            this.offset = offset;
+        }
+    }
+
+    @Override
+    public synchronized int add(T item)
+    {
+        int position = list.size() + scheduledPosition(item);
+        schedule(item);
+        keys.add(item);
+        modified();
+        return position;
+    }
+
+    /**
+     * Appending to a lane never moves another owner's entries, so a batch is
+     * scheduled in one pass without working out each entry's position
+     */
+    @Override
+    public synchronized void addAll(List<T> items)
+    {
+        if(items.isEmpty())
+            return;
+        for(T item: items)
+        {
+            schedule(item);
+            keys.add(item);
+        }
+        modified();
+    }
+
+    @Override
+    public synchronized void addAt(int index, T item)
+    {
+        addAllAt(index, Collections.singletonList(item));
+    }
+
+    @Override
+    public synchronized void addAllAt(int index, List<T> items)
+    {
+        if(index <= list.size() || scheduledSize() == 0)
+        {
+            super.addAllAt(index, items);
+            return;
+        }
+        if(items.isEmpty())
+            return;
+        // the slot of the entry they are placed behind
+        Cut<T> cut = cut(Math.min(index, size()) - list.size() - 1);
+        T anchor = cut.lane.get(cut.slot);
+        List<T> pinned = pins.computeIfAbsent(anchor, a -> new ArrayList<>());
+        pinned.addAll(cut.offset, items);
+        long duration = 0;
+        for(T item: items)
+        {
+            anchors.put(item, anchor);
+            pinnedCounts.merge(item.getIdentifier(), 1, Integer::sum);
+            duration += item.getDuration();
+            keys.add(item);
+        }
+        pinnedDuration += duration;
+        cut.lane.regroup(cut.slot, items.size(), duration);
+        modified();
+    }
+
+    @Override
+    public synchronized int size()
+    {
+        return list.size() + scheduledSize() + anchors.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    @Override
+    public synchronized T pull()
+    {
+        if(!list.isEmpty())
+            return super.pull();
+        T item = unschedule();
+        keys.remove(item);
+        release(item);
+        modified();
+        return item;
+    }
+
+    @Override
+    public synchronized T get(int index)
+    {
+        if(index < list.size())
+            return list.get(index);
+        if(index >= size())
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size());
+        Cut<T> cut = cut(index - list.size());
+        T anchor = cut.lane.get(cut.slot);
+        return cut.offset == 0 ? anchor : pins.get(anchor).get(cut.offset - 1);
+    }
+
+    @Override
+    public synchronized T remove(int index)
+    {
+        if(index < list.size())
+            return super.remove(index);
+        if(index >= size())
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size());
+        int position = index - list.size();
+        Cut<T> cut = cut(position);
+        T anchor = cut.lane.get(cut.slot);
+        T item;
+        if(cut.offset > 0)
+        {
+            item = pins.get(anchor).get(cut.offset - 1);
+            unpin(item, cut.lane, cut.slot);
+        }
+        else
+        {
+            item = anchor;
+            if(pins.containsKey(item))
+                rehome(item, cut.lane, cut.slot, position);
+            unschedule(item);
+        }
+        keys.remove(item);
+        modified();
+        return item;
+    }
+
+    @Override
+    public synchronized T moveItem(int from, int to)
+    {
+        T item = remove(from);
+        addAt(to, item);
+        return item;
+    }
+
+    @Override
+    public synchronized int count(long identifier)
+    {
+        Lane<T> lane = laneOf(identifier);
+        return super.count(identifier) + (lane == null ? 0 : lane.size()) + pinnedCounts.getOrDefault(identifier, 0);
+    }
+
+    @Override
+    public synchronized long getTotalDuration()
+    {
+        return super.getTotalDuration() + scheduledDuration() + pinnedDuration;
+    }
+
+    @Override
+    public synchronized long getDurationBefore(int index)
+    {
+        if(index <= list.size())
+            return super.getDurationBefore(index);
+        if(index > size())
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size());
+        Cut<T> cut = cut(index - list.size());
+        long duration = list.totalWeight() + cut.duration;
+        if(cut.lane != null && cut.offset > 0)
+        {
+            T anchor = cut.lane.get(cut.slot);
+            duration += anchor.getDuration();
+            List<T> pinned = pins.get(anchor);
+            for(int i=0; i<cut.offset-1; i++)
+                duration += pinned.get(i).getDuration();
+        }
+        return duration;
+    }
+
+    /**
+     * Entries pinned behind the owner's scheduled entries are pinned behind
+     * whatever plays before those instead, which is O(owner's entries * owners * log n)
+     */
+    @Override
+    public synchronized int removeAll(long identifier)
+    {
+        int count = super.removeAll(identifier);
+        if(pinnedCounts.containsKey(identifier))
+        {
+            for(T item: new ArrayList<>(anchors.keySet()))
+            {
+                if(item.getIdentifier() != identifier)
+                    continue;
+                T anchor = anchors.get(item);
+                Lane<T> lane = laneOf(anchor.getIdentifier());
+                unpin(item, lane, lane.indexOf(anchor));
+                keys.remove(item);
+                count++;
+            }
+        }
+        Lane<T> lane = laneOf(identifier);
+        if(lane != null && !pins.isEmpty())
+        {
+            // from the back, so what is passed to an earlier slot of the owner is passed on again
+            for(int slot=lane.size()-1; slot>=0; slot--)
+                if(pins.containsKey(lane.get(slot)))
+                    rehome(lane.get(slot), lane, slot, scheduledPosition(lane, slot));
+        }
+        for(T item: unscheduleAll(identifier))
+        {
+            keys.remove(item);
+            count++;
+        }
+        modified();
+        return count;
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        pins.clear();
+        anchors.clear();
+        pinnedCounts.clear();
+        pinnedDuration = 0;
+        clearSchedule();
+        super.clear();
+    }
+
+    /**
+     * Shuffles the owner's entries between the places they hold, wherever
+     * those are. Entries pinned behind one of those places stay behind the
+     * place rather than the entry, so no one else's entry moves.
+     */
+    @Override
+    public synchronized int shuffle(long identifier)
+    {
+        List<Node<T>> nodes = list.nodesOf(identifier);
+        Lane<T> lane = laneOf(identifier);
+        List<T> scheduled = lane == null ? Collections.emptyList() : lane.toList();
+        List<T> pinned = new ArrayList<>();
+        if(pinnedCounts.containsKey(identifier))
+            for(T item: anchors.keySet())
+                if(item.getIdentifier() == identifier)
+                    pinned.add(item);
+        List<T> before = new ArrayList<>(nodes.size() + scheduled.size() + pinned.size());
+        nodes.forEach(node -> before.add(node.getValue()));
+        before.addAll(scheduled);
+        before.addAll(pinned);
+        List<T> after = new ArrayList<>(before);
+        for(int j=0; j<after.size(); j++)
+        {
+            int second = (int)(Math.random()*after.size());
+            T temp = after.get(j);
+            after.set(j, after.get(second));
+            after.set(second, temp);
+        }
+        for(int j=0; j<nodes.size(); j++)
+            list.setValue(nodes.get(j), after.get(j));
+        // entries may have swapped regions, so the keys outside the list can change
+        scheduled.forEach(keys::remove);
+        pinned.forEach(keys::remove);
+        after.subList(nodes.size(), after.size()).forEach(keys::add);
+        if(lane != null)
+            setLane(identifier, after.subList(nodes.size(), nodes.size() + scheduled.size()));
+        if(anchors.isEmpty())
+        {
+            modified();
+            return after.size();
+        }
+        // pins stay behind the place rather than the entry that held it
+        Map<T, T> replaced = new IdentityHashMap<>();
+        for(int j=nodes.size(); j<before.size(); j++)
+            replaced.put(before.get(j), after.get(j));
+        Map<T, List<T>> moved = new IdentityHashMap<>();
+        Map<T, Long> longer = new IdentityHashMap<>();
+        pins.forEach((anchor, group) ->
+        {
+            List<T> relabeled = new ArrayList<>(group.size());
+            long difference = 0;
+            for(T item: group)
+            {
+                T now = replaced.getOrDefault(item, item);
+                relabeled.add(now);
+                difference += now.getDuration() - item.getDuration();
+            }
+            T place = replaced.getOrDefault(anchor, anchor);
+            moved.put(place, relabeled);
+            if(difference != 0)
+                longer.put(place, difference);
+        });
+        pins.clear();
+        pins.putAll(moved);
+        anchors.clear();
+        pins.forEach((anchor, group) -> group.forEach(item -> anchors.put(item, anchor)));
+        longer.forEach((anchor, difference) ->
+        {
+            Lane<T> held = laneOf(anchor.getIdentifier());
+            held.regroup(held.indexOf(anchor), 0, difference);
+            pinnedDuration += difference;
+        });
+        modified();
+        return after.size();
+    }
+
+    @Override
+    public synchronized void skip(int number)
+    {
+        while(number > 0 && !isEmpty())
+        {
+            if(!list.isEmpty())
+            {
+                int count = Math.min(number, list.size());
+                super.skip(count);
+                number -= count;
+                continue;
+            }
+            T item = unschedule();
+            keys.remove(item);
+            release(item);
+            number--;
+        }
+        modified();
+    }
+
+    /**
+     * The play order: the list, then the schedule's order with pinned
+     * entries after the entries whose slots they play in
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Object[] toArray()
+    {
+        Object[] front = list.toArray();
+        Object[] scheduled = scheduledOrder();
+        if(pins.isEmpty())
+        {
+            Object[] items = Arrays.copyOf(front, front.length + scheduled.length);
+            System.arraycopy(scheduled, 0, items, front.length, scheduled.length);
+            return items;
+        }
+        Object[] items = Arrays.copyOf(front, front.length + scheduled.length + anchors.size());
+        int index = front.length;
+        for(Object item: scheduled)
+        {
+            items[index++] = item;
+            List<T> pinned = pins.get((T) item);
+            if(pinned != null)
+                for(T other: pinned)
+                    items[index++] = other;
+        }
+        return items;
+    }
+
+    /**
+     * Moves the entries pinned behind an entry that is being played to the
+     * end of the list, which is where they now play
+     */
+    private void release(T anchor)
+    {
+        List<T> pinned = pins.remove(anchor);
+        if(pinned == null)
+            return;
+        for(T item: pinned)
+        {
+            anchors.remove(item);
+            uncount(item);
+            keys.remove(item);
+            list.add(item);
+        }
+    }
+
+    /**
+     * Takes a pinned entry out of the slot it plays in
+     */
+    private void unpin(T item, Lane<T> lane, int slot)
+    {
+        T anchor = anchors.remove(item);
+        List<T> pinned = pins.get(anchor);
+        for(int i=0; i<pinned.size(); i++)
+        {
+            if(pinned.get(i) == item)
+            {
+                pinned.remove(i);
+                break;
+            }
+        }
+        if(pinned.isEmpty())
+            pins.remove(anchor);
+        uncount(item);
+        lane.regroup(slot, -1, -item.getDuration());
+    }
+
+    /**
+     * Pins the entries pinned behind a scheduled entry that is about to be
+     * removed behind whatever plays right before it instead, or puts them at
+     * the end of the list if nothing does
+     *
+     * @param position how many entries play before the removed entry's slot
+     */
+    private void rehome(T anchor, Lane<T> lane, int slot, int position)
+    {
+        if(position == 0)
+        {
+            lane.regroup(slot, -pins.get(anchor).size(), -durationOf(pins.get(anchor)));
+            release(anchor);
+            return;
+        }
+        List<T> pinned = pins.remove(anchor);
+        long duration = durationOf(pinned);
+        lane.regroup(slot, -pinned.size(), -duration);
+        Cut<T> cut = cut(position - 1);
+        T before = cut.lane.get(cut.slot);
+        pins.computeIfAbsent(before, a -> new ArrayList<>()).addAll(pinned);
+        pinned.forEach(item -> anchors.put(item, before));
+        cut.lane.regroup(cut.slot, pinned.size(), duration);
+    }
+
+    private void uncount(T item)
+    {
+        pinnedCounts.computeIfPresent(item.getIdentifier(), (id, count) -> count == 1 ? null : count - 1);
+        pinnedDuration -= item.getDuration();
+    }
+
+    private static <T extends Queueable> long durationOf(List<T> items)
+    {
+        long duration = 0;
+        for(T item: items)
+            duration += item.getDuration();
+        return duration;
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot.queue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A queue that shares airtime rather than turns between requesters, using
+ * deficit round robin: each time a requester's turn comes up they are given
+ * a quantum of playtime, and they play entries for as long as their unused
+ * playtime covers the next one. Someone queuing long mixes therefore waits
+ * more turns between them instead of starving everyone else.
+ *
+ * Adding and pulling are O(1) amortized, and where an entry will play, or
+ * how long until it does, is worked out from each requester's running
+ * durations without running the schedule.
+ *
+ * @author Jellyo
+ * @param <T>
+ */
+public class WeightedQueue<T extends Queueable> extends ScheduledQueue<T>
+{
+    public final static long DEFAULT_QUANTUM = 5 * 60 * 1000;
+
+    public WeightedQueue(AbstractQueue<T> queue)
+    {
+        this(queue, DEFAULT_QUANTUM);
+    }
+
+    /**
+     * @param queue the queue to take entries from, or null
+     * @param quantum the playtime each requester is given per turn, in milliseconds
+     */
+    public WeightedQueue(AbstractQueue<T> queue, long quantum)
+    {
+        if(quantum <= 0)
+            throw new IllegalArgumentException("The quantum must be positive");
+        this.quantum = quantum;
+        adopt(queue);
+    }
+
+    private final long quantum;
+    // requesters that have entries, in turn order; the first one is being served
+    private final LinkedHashMap<Long, Account<T>> ring = new LinkedHashMap<>();
+    // whether the requester being served has been given their quantum yet
+    private boolean credited = false;
+    private int size = 0;
+    private long duration = 0;
+
+    @Override
+    protected void schedule(T item)
+    {
+        ring.computeIfAbsent(item.getIdentifier(), id -> new Account<>()).add(item);
+        size++;
+        duration += item.getDuration();
+    }
+
+    @Override
+    protected T unschedule()
+    {
+        while(true)
+        {
+            Iterator<Map.Entry<Long, Account<T>>> it = ring.entrySet().iterator();
+            Map.Entry<Long, Account<T>> head = it.next();
+            Account<T> account = head.getValue();
+            if(!credited)
+            {
+                account.deficit += quantum;
+                credited = true;
+            }
+            if(account.peek().getDuration() <= account.deficit)
+            {
+                T item = account.poll();
+                account.deficit -= item.getDuration();
+                size--;
+                duration -= item.getDuration();
+                if(account.isEmpty())
+                {
+                    // an idle requester does not bank playtime
+                    it.remove();
+                    credited = false;
+                }
+                return item;
+            }
+            // not enough playtime left this turn; move to the back of the ring
+            it.remove();
+            ring.put(head.getKey(), account);
+            credited = false;
+        }
+    }
+
+    @Override
+    protected void unschedule(T item)
+    {
+        Account<T> account = ring.get(item.getIdentifier());
+        duration -= account.getDuration();
+        account.remove(item);
+        size--;
+        if(account.isEmpty())
+            unscheduleAll(item.getIdentifier());
+        else
+            duration += account.getDuration();
+    }
+
+    @Override
+    protected List<T> unscheduleAll(long identifier)
+    {
+        if(ring.isEmpty())
+            return Collections.emptyList();
+        if(ring.keySet().iterator().next() == identifier)
+            credited = false;
+        Account<T> account = ring.remove(identifier);
+        if(account == null)
+            return Collections.emptyList();
+        size -= account.size();
+        duration -= account.getDuration();
+        return account.toList();
+    }
+
+    @Override
+    protected Lane<T> laneOf(long identifier)
+    {
+        return ring.get(identifier);
+    }
+
+    /**
+     * Shuffles the owner's entries between the places they hold, as the fair
+     * queue does. Unlike there, other requesters' entries can move too: how
+     * many of the owner's entries fit in a turn depends on their durations,
+     * so a new order can change which turns the owner plays in, and everyone
+     * else plays around those. Other requesters' entries still play in the
+     * same order among themselves, apart from those pinned behind one of the
+     * owner's places, and if the owner's entries are all as long as each
+     * other nothing else moves.
+     */
+    @Override
+    public synchronized int shuffle(long identifier)
+    {
+        return super.shuffle(identifier);
+    }
+
+    /**
+     * The requester keeps their unused playtime
+     */
+    @Override
+    protected void setLane(long identifier, List<T> items)
+    {
+        Account<T> account = ring.get(identifier);
+        if(account == null)
+            return;
+        duration -= account.getDuration();
+        account.reset(items);
+        duration += account.getDuration();
+    }
+
+    @Override
+    protected void clearSchedule()
+    {
+        ring.clear();
+        credited = false;
+        size = 0;
+        duration = 0;
+    }
+
+    @Override
+    protected int scheduledSize()
+    {
+        return size;
+    }
+
+    @Override
+    protected long scheduledDuration()
+    {
+        return duration;
+    }
+
+    /**
+     * An entry plays in the first of its owner's turns that leaves them
+     * enough playtime for everything up to and including it. Everyone ahead
+     * of the owner in the ring has had that many turns by then, and everyone
+     * behind them one fewer, so this is O(owners * log n).
+     */
+    @Override
+    protected int scheduledPosition(T item)
+    {
+        Account<T> own = ring.get(item.getIdentifier());
+        if(own == null)
+        {
+            // a new requester joins the back of the ring with no playtime
+            long turn = turnOf(item.getDuration(), 0);
+            int position = 0;
+            for(Account<T> account: ring.values())
+                position += account.entriesOf(playedBy(account, turn));
+            return position;
+        }
+        return position(own, own.size(), own.getDuration() + item.getDuration());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected int scheduledPosition(Lane<T> lane, int slot)
+    {
+        return position((Account<T>) lane, slot, lane.durationOf(slot + 1));
+    }
+
+    /**
+     * Finds the last turn after which no more than {@code count} entries have
+     * played, by binary search, and then walks the next turn in ring order.
+     * Each step of the search is O(owners * log n).
+     */
+    @Override
+    protected Cut<T> cut(int count)
+    {
+        long low = 0, high = 0;
+        for(Account<T> account: ring.values())
+            high = Math.max(high, turnOf(account.getDuration(), base(account)));
+        while(low < high)
+        {
+            long mid = (low + high + 1) >>> 1;
+            if(playedIn(mid) <= count)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        int extra = count - playedIn(low);
+        long total = 0;
+        for(Account<T> account: ring.values())
+            total += account.playtimeOf(playedBy(account, low));
+        for(Account<T> account: ring.values())
+        {
+            int next = playedBy(account, low + 1);
+            for(int slot=playedBy(account, low); slot<next; slot++)
+            {
+                int entries = account.entriesOf(slot + 1) - account.entriesOf(slot);
+                if(extra < entries)
+                    return new Cut<>(total, account, slot, extra);
+                extra -= entries;
+                total += account.playtimeOf(slot + 1) - account.playtimeOf(slot);
+            }
+        }
+        return new Cut<>(total, null, 0, 0);
+    }
+
+    /**
+     * Runs a copy of the schedule
+     */
+    @Override
+    protected Object[] scheduledOrder()
+    {
+        Object[] items = new Object[size];
+        ArrayDeque<Pass<T>> passes = new ArrayDeque<>(ring.size());
+        ring.values().forEach(account -> passes.add(new Pass<>(account)));
+        boolean first = credited;
+        int index = 0;
+        while(!passes.isEmpty())
+        {
+            Pass<T> pass = passes.poll();
+            if(!first)
+                pass.deficit += quantum;
+            first = false;
+            while(pass.next != null && pass.next.getDuration() <= pass.deficit)
+            {
+                items[index++] = pass.next;
+                pass.deficit -= pass.next.getDuration();
+                pass.next = pass.items.hasNext() ? pass.items.next() : null;
+            }
+            if(pass.next != null)
+                passes.add(pass);
+        }
+        return items;
+    }
+
+    private Account<T> head()
+    {
+        return ring.isEmpty() ? null : ring.values().iterator().next();
+    }
+
+    /**
+     * The playtime a requester has had in total by the end of their turn
+     * {@code turn} from now, less {@code turn} quanta; their first turn is
+     * the one in progress if they are being served
+     */
+    private long base(Account<T> account)
+    {
+        return credited && account == head() ? account.deficit - quantum : account.deficit;
+    }
+
+    /**
+     * @return the first turn from now whose playtime covers the given duration
+     */
+    private long turnOf(long needed, long base)
+    {
+        if(needed <= base + quantum)
+            return 1;
+        return (needed - base + quantum - 1) / quantum;
+    }
+
+    /**
+     * @return how many of the requester's entries have played by the end of
+     * their turn {@code turn} from now
+     */
+    private int playedBy(Account<T> account, long turn)
+    {
+        if(turn <= 0)
+            return 0;
+        return account.countWithin(base(account) + turn * quantum);
+    }
+
+    /**
+     * @return how many entries, pinned ones included, have played by the end
+     * of everyone's turn {@code turns} from now
+     */
+    private int playedIn(long turns)
+    {
+        int played = 0;
+        for(Account<T> account: ring.values())
+            played += account.entriesOf(playedBy(account, turns));
+        return played;
+    }
+
+    /**
+     * @param own a requester's account
+     * @param slot one of its slots, or where its next entry would go
+     * @param through the duration of the requester's entries up to and including that slot
+     * @return how many entries play before that slot
+     */
+    private int position(Account<T> own, int slot, long through)
+    {
+        long turn = turnOf(through, base(own));
+        int position = own.entriesOf(slot);
+        boolean before = true;
+        for(Account<T> account: ring.values())
+        {
+            if(account == own)
+                before = false;
+            else
+                position += account.entriesOf(playedBy(account, before ? turn : turn - 1));
+        }
+        return position;
+    }
+
+    /**
+     * A requester's entries and the playtime they have not used yet
+     */
+    private static class Account<T extends Queueable> extends Lane<T>
+    {
+        private long deficit = 0;
+    }
+
+    /**
+     * A requester's progress through a run of the schedule
+     */
+    private static class Pass<T extends Queueable>
+    {
+        private final Iterator<T> items;
+        private T next;
+        private long deficit;
+
+        private Pass(Account<T> account)
+        {
+            this.items = account.iterator();
+            this.next = items.next();
+            this.deficit = account.deficit;
+        }
+    }
+}
@@ -39,8 +39,11 @@ public class Settings implements GuildSettingsProvider
     private QueueType queueType;
     private String prefix;
     private double skipRatio;
+    private int maxUserEntries;
+    private long maxQueueSeconds;
+    private boolean duplicatesAllowed;
 
-    public Settings(SettingsManager manager, String textId, String voiceId, String roleId, int volume, String defaultPlaylist, RepeatMode repeatMode, String prefix, double skipRatio, QueueType queueType)
+    public Settings(SettingsManager manager, String textId, String voiceId, String roleId, int volume, String defaultPlaylist, RepeatMode repeatMode, String prefix, double skipRatio, QueueType queueType, int maxUserEntries, long maxQueueSeconds, boolean duplicatesAllowed)
     {
         this.manager = manager;
         try
@@ -73,9 +76,12 @@ public class Settings implements GuildSettingsProvider
         this.prefix = prefix;
         this.skipRatio = skipRatio;
         this.queueType = queueType;
+        this.maxUserEntries = maxUserEntries;
+        this.maxQueueSeconds = maxQueueSeconds;
+        this.duplicatesAllowed = duplicatesAllowed;
     }
     
-    public Settings(SettingsManager manager, long textId, long voiceId, long roleId, int volume, String defaultPlaylist, RepeatMode repeatMode, String prefix, double skipRatio, QueueType queueType)
+    public Settings(SettingsManager manager, long textId, long voiceId, long roleId, int volume, String defaultPlaylist, RepeatMode repeatMode, String prefix, double skipRatio, QueueType queueType, int maxUserEntries, long maxQueueSeconds, boolean duplicatesAllowed)
     {
         this.manager = manager;
         this.textId = textId;
@@ -87,6 +93,9 @@ public class Settings implements GuildSettingsProvider
         this.prefix = prefix;
         this.skipRatio = skipRatio;
         this.queueType = queueType;
+        this.maxUserEntries = maxUserEntries;
+        this.maxQueueSeconds = maxQueueSeconds;
+        this.duplicatesAllowed = duplicatesAllowed;
     }
     
     // Getters
@@ -135,6 +144,32 @@ public class Settings implements GuildSettingsProvider
         return queueType;
     }
 
+    /**
+     * @return the most entries one user may queue, 0 for no limit, or -1 to
+     * use the limit from the config
+     */
+    public int getMaxUserEntries()
+    {
+        return maxUserEntries;
+    }
+
+    /**
+     * @return the longest the queue may be in seconds, 0 for no limit, or -1
+     * to use the limit from the config
+     */
+    public long getMaxQueueSeconds()
+    {
+        return maxQueueSeconds;
+    }
+
+    /**
+     * @return whether a track may be queued while it is already playing or queued
+     */
+    public boolean isDuplicatesAllowed()
+    {
+        return duplicatesAllowed;
+    }
+
     @Override
     public Collection<String> getPrefixes()
     {
@@ -195,4 +230,22 @@ public class Settings implements GuildSettingsProvider
         this.queueType = queueType;
         this.manager.writeSettings();
     }
+
+    public void setMaxUserEntries(int maxUserEntries)
+    {
+        this.maxUserEntries = maxUserEntries;
+        this.manager.writeSettings();
+    }
+
+    public void setMaxQueueSeconds(long maxQueueSeconds)
+    {
+        this.maxQueueSeconds = maxQueueSeconds;
+        this.manager.writeSettings();
+    }
+
+    public void setDuplicatesAllowed(boolean duplicatesAllowed)
+    {
+        this.duplicatesAllowed = duplicatesAllowed;
+        this.manager.writeSettings();
+    }
 }
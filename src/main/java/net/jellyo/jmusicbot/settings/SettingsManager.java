@@ -60,7 +60,10 @@ public class SettingsManager implements GuildSettingsManager<Settings>
                         o.has("repeat_mode")     ? o.getEnum(RepeatMode.class, "repeat_mode"): RepeatMode.OFF,
                         o.has("prefix")          ? o.getString("prefix")                     : null,
                         o.has("skip_ratio")      ? o.getDouble("skip_ratio")                 : -1,
-                        o.has("queue_type")      ? o.getEnum(QueueType.class, "queue_type")  : QueueType.FAIR));
+                        o.has("queue_type")      ? o.getEnum(QueueType.class, "queue_type")  : QueueType.FAIR,
+                        o.has("max_user_entries")? o.getInt("max_user_entries")              : -1,
+                        o.has("max_queue_time")  ? o.getLong("max_queue_time")               : -1,
+                        !o.has("allow_duplicates") || o.getBoolean("allow_duplicates")));
             });
         } catch (NoSuchFileException e) {
             // create an empty json file
@@ -97,7 +100,7 @@ public class SettingsManager implements GuildSettingsManager<Settings>
 
     private Settings createDefaultSettings()
     {
-        return new Settings(this, 0, 0, 0, 100, null, RepeatMode.OFF, null, -1, QueueType.FAIR);
+        return new Settings(this, 0, 0, 0, 100, null, RepeatMode.OFF, null, -1, QueueType.FAIR, -1, -1, true);
     }
 
     protected void writeSettings()
@@ -124,6 +127,12 @@ public class SettingsManager implements GuildSettingsManager<Settings>
                 o.put("skip_ratio", s.getSkipRatio());
             if(s.getQueueType() != QueueType.FAIR)
                 o.put("queue_type", s.getQueueType().name());
+            if(s.getMaxUserEntries() != -1)
+                o.put("max_user_entries", s.getMaxUserEntries());
+            if(s.getMaxQueueSeconds() != -1)
+                o.put("max_queue_time", s.getMaxQueueSeconds());
+            if(!s.isDuplicatesAllowed())
+                o.put("allow_duplicates", false);
             obj.put(Long.toString(key), o);
         });
         try {
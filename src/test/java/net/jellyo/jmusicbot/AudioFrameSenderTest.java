@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot;
+
+import com.jagrosh.jmusicbot.audio.AudioFrameSender;
+import com.sedmelluq.discord.lavaplayer.format.StandardAudioDataFormats;
+import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
+import com.sedmelluq.discord.lavaplayer.player.DefaultAudioPlayerManager;
+import com.sedmelluq.discord.lavaplayer.player.FunctionalResultHandler;
+import com.sedmelluq.discord.lavaplayer.source.local.LocalAudioSourceManager;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.playback.NonAllocatingAudioFrameBuffer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Plays a generated tone through a player set up the way the bot sets up its
+ * own, so the frames come from lavaplayer's non-allocating frame buffer
+ *
+ * @author Jellyo
+ */
+public class AudioFrameSenderTest
+{
+    private static final int SECONDS = 40;
+    private static final int RATE = 48000;
+    private static final int FRAMES = SECONDS * 50;
+    private static Path tone;
+
+    private DefaultAudioPlayerManager manager;
+    private AudioPlayer player;
+
+    @BeforeClass
+    public static void writeTone() throws IOException
+    {
+        tone = Files.createTempFile("tone", ".wav");
+        int samples = SECONDS * RATE;
+        ByteBuffer wav = ByteBuffer.allocate(44 + samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes()).putInt(36 + samples * 2).put("WAVE".getBytes());
+        // 16-bit mono PCM
+        wav.put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) 1)
+                .putInt(RATE).putInt(RATE * 2).putShort((short) 2).putShort((short) 16);
+        wav.put("data".getBytes()).putInt(samples * 2);
+        for(int i=0; i<samples; i++)
+            wav.putShort((short) (Math.sin(2 * Math.PI * 440 * i / RATE) * 8000));
+        try(OutputStream out = Files.newOutputStream(tone))
+        {
+            out.write(wav.array());
+        }
+    }
+
+    @AfterClass
+    public static void deleteTone() throws IOException
+    {
+        Files.deleteIfExists(tone);
+    }
+
+    @Before
+    public void play() throws Exception
+    {
+        manager = new DefaultAudioPlayerManager();
+        manager.getConfiguration().setFrameBufferFactory(NonAllocatingAudioFrameBuffer::new);
+        // hold the whole tone, so frames never run out while they are measured
+        manager.setFrameBufferDuration((SECONDS + 1) * 1000);
+        manager.registerSourceManager(new LocalAudioSourceManager());
+        AudioTrack[] loaded = new AudioTrack[1];
+        manager.loadItem(tone.toString(), new FunctionalResultHandler(track -> loaded[0] = track, null, null, null))
+                .get(10, TimeUnit.SECONDS);
+        assertNotNull(loaded[0]);
+        player = manager.createPlayer();
+        player.playTrack(loaded[0]);
+    }
+
+    @After
+    public void stop()
+    {
+        player.destroy();
+        manager.shutdown();
+    }
+
+    @Test
+    public void framesArriveIntact() throws InterruptedException
+    {
+        AudioFrameSender sender = new AudioFrameSender(player);
+        int maximum = StandardAudioDataFormats.DISCORD_OPUS.maximumChunkSize();
+        int frames = 0;
+        long deadline = System.currentTimeMillis() + 20000;
+        while(player.getPlayingTrack() != null && System.currentTimeMillis() < deadline)
+        {
+            if(!sender.canProvide())
+            {
+                Thread.sleep(5);
+                continue;
+            }
+            ByteBuffer buffer = sender.provide20MsAudio();
+            assertTrue(buffer.remaining() > 0 && buffer.remaining() <= maximum);
+            frames++;
+        }
+        assertNull("the tone did not finish", player.getPlayingTrack());
+        // the decoder and encoder may pad the ends by a frame or two
+        assertTrue("sent "+frames+" frames", Math.abs(frames - FRAMES) <= 5);
+        assertFalse(sender.canProvide());
+    }
+
+    @Test
+    public void sendingAllocatesNothingPerFrame() throws InterruptedException
+    {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        AudioFrameSender sender = new AudioFrameSender(player);
+        int warmup = FRAMES / 4, measured = FRAMES / 2;
+        // let the JIT settle, and the player decode ahead
+        send(sender, warmup);
+        Thread.sleep(2000);
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        send(sender, measured);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        // the measurement itself may allocate a little, but never a byte per frame
+        assertTrue("allocated "+allocated+" bytes over "+measured+" frames", allocated < measured);
+    }
+
+    private static void send(AudioFrameSender sender, int frames) throws InterruptedException
+    {
+        byte[] read = new byte[StandardAudioDataFormats.DISCORD_OPUS.maximumChunkSize()];
+        for(int i=0; i<frames; )
+        {
+            // what JDA does on its send thread
+            if(!sender.canProvide())
+            {
+                Thread.sleep(5);
+                continue;
+            }
+            ByteBuffer buffer = sender.provide20MsAudio();
+            buffer.get(read, 0, buffer.remaining());
+            i++;
+        }
+    }
+}
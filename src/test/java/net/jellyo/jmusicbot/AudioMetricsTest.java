@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot;
+
+import com.jagrosh.jmusicbot.audio.AudioMetrics;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Jellyo
+ */
+public class AudioMetricsTest
+{
+    @Test
+    public void countsFramesAndJitter()
+    {
+        AudioMetrics metrics = new AudioMetrics();
+        long now = 1_000_000_000L;
+        for(int i=0; i<100; i++)
+        {
+            // every tenth frame is 5ms late and missing
+            boolean late = i % 10 == 9;
+            long start = now + (late ? 5_000_000 : 0);
+            metrics.record(start, start + 3_000, !late, true);
+            now += AudioMetrics.FRAME_NANOS;
+        }
+        assertEquals(90, metrics.getFramesProvided());
+        assertEquals(10, metrics.getFramesMissed());
+        assertEquals(300_000, metrics.getProvideNanos());
+        // 3us lands in the 2-4us bucket
+        assertEquals(4, AudioMetrics.percentile(metrics.getProvideHistogram(), 0.99));
+        assertEquals(1, AudioMetrics.percentile(metrics.getJitterHistogram(), 0.5));
+        // a late frame is 5ms off, and so is the one after it
+        assertEquals(8192, AudioMetrics.percentile(metrics.getJitterHistogram(), 1));
+    }
+
+    @Test
+    public void pausesAreNotJitter()
+    {
+        AudioMetrics metrics = new AudioMetrics();
+        metrics.record(1_000_000_000L, 1_000_001_000L, true, true);
+        metrics.record(1_020_000_000L, 1_020_001_000L, false, false);
+        metrics.record(9_000_000_000L, 9_000_001_000L, true, true);
+        assertEquals(0, metrics.getFramesMissed());
+        long jitter = 0;
+        for(long count: metrics.getJitterHistogram())
+            jitter += count;
+        assertEquals(0, jitter);
+        assertEquals(0, AudioMetrics.percentile(metrics.getJitterHistogram(), 0.99));
+    }
+}
@@ -16,7 +16,14 @@
 package com.jagrosh.jmusicbot;
 
 import com.jagrosh.jmusicbot.queue.FairQueue;
+import com.jagrosh.jmusicbot.queue.LinearQueue;
 import com.jagrosh.jmusicbot.queue.Queueable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -46,7 +53,211 @@ public class FairQueueTest
         assertEquals(queue.size(), size);
     }
     
-    private class Q implements Queueable
+    @Test
+    public void roundRobinOrder()
+    {
+        FairQueue<Q> queue = new FairQueue<>(null);
+        assertEquals(0, queue.add(new Q(1)));
+        assertEquals(1, queue.add(new Q(1)));
+        assertEquals(2, queue.add(new Q(1)));
+        assertEquals(1, queue.add(new Q(2)));
+        assertEquals(3, queue.add(new Q(2)));
+        assertEquals(2, queue.add(new Q(3)));
+        long[] expected = {1, 2, 3, 1, 2, 1};
+        for(int i=0; i<expected.length; i++)
+            assertEquals(expected[i], queue.get(i).getIdentifier());
+    }
+
+    @Test
+    public void matchesScanningImplementation()
+    {
+        // the ring must produce the same order as the original scanning insert
+        Random random = new Random(7);
+        FairQueue<Q> queue = new FairQueue<>(null);
+        List<Q> reference = new ArrayList<>();
+        for(int i=0; i<3000; i++)
+        {
+            if(random.nextInt(4) == 0 && !reference.isEmpty())
+                assertSame(reference.remove(0), queue.pull());
+            else
+            {
+                Q item = new Q(random.nextInt(6));
+                assertEquals(scanningAdd(reference, item), queue.add(item));
+            }
+            assertEquals(reference, queue.getList());
+        }
+    }
+
+    @Test
+    public void addAllMatchesAdd()
+    {
+        Random random = new Random(11);
+        FairQueue<Q> bulk = new FairQueue<>(null);
+        FairQueue<Q> single = new FairQueue<>(null);
+        for(int i=0; i<100; i++)
+        {
+            List<Q> batch = new ArrayList<>();
+            for(int j=random.nextInt(20); j>0; j--)
+                batch.add(new Q(random.nextInt(5)));
+            bulk.addAll(batch);
+            batch.forEach(single::add);
+            if(random.nextBoolean() && !single.isEmpty())
+                assertSame(single.pull(), bulk.pull());
+            assertEquals(single.getList(), bulk.getList());
+        }
+    }
+
+    @Test
+    public void positionalOperationsKeepOrder()
+    {
+        // a moved or removed entry leaves its lane, as if it had never been queued
+        List<Q> items = new ArrayList<>();
+        for(int i=0; i<20; i++)
+            items.add(new Q(i % 4));
+        FairQueue<Q> queue = new FairQueue<>(null);
+        items.forEach(queue::add);
+        Q moved = queue.get(12);
+        assertSame(moved, queue.moveItem(12, 5));
+        List<Q> expected = orderWithout(items, moved);
+        Q anchor = expected.get(4);
+        expected.add(5, moved);
+        assertEquals(expected, queue.getList());
+        Q removed = queue.get(8);
+        assertSame(removed, queue.remove(8));
+        expected = orderWithout(items, moved, removed);
+        expected.add(expected.indexOf(anchor) + 1, moved);
+        assertEquals(expected, queue.getList());
+        Q top = new Q(9);
+        expected.add(0, top);
+        queue.addAt(0, top);
+        assertEquals(expected, queue.getList());
+        expected.subList(0, 3).clear();
+        queue.skip(3);
+        assertEquals(expected, queue.getList());
+        int before = expected.size();
+        expected.removeIf(q -> q.getIdentifier() == 2);
+        assertEquals(before - expected.size(), queue.removeAll(2));
+        assertEquals(expected, queue.getList());
+    }
+
+    @Test
+    public void newRequesterStaysFairAfterTailOperations()
+    {
+        FairQueue<Q> removed = new FairQueue<>(null);
+        FairQueue<Q> moved = new FairQueue<>(null);
+        for(int i=0; i<50; i++)
+        {
+            for(FairQueue<Q> queue: Arrays.asList(removed, moved))
+            {
+                queue.add(new Q(1));
+                queue.add(new Q(2));
+            }
+        }
+        removed.remove(99);
+        assertEquals(2, removed.add(new Q(3)));
+        assertEquals(3, removed.get(2).getIdentifier());
+        Q last = moved.get(99);
+        moved.moveItem(99, 98);
+        assertSame(last, moved.get(98));
+        assertEquals(2, moved.add(new Q(3)));
+        assertEquals(3, moved.get(2).getIdentifier());
+        assertSame(last, moved.get(99));
+        // a pinned entry plays where it was put once its anchor has played
+        for(int i=0; i<99; i++)
+            moved.pull();
+        assertSame(last, moved.get(0));
+        assertEquals(2, moved.size());
+    }
+
+    @Test
+    public void positionsMatchTheListWithPinnedEntries()
+    {
+        // get and add work from the lanes' running counts, pinned entries included
+        Random random = new Random(17);
+        FairQueue<Q> queue = new FairQueue<>(null);
+        for(int i=0; i<3000; i++)
+        {
+            int op = random.nextInt(8);
+            if(op < 3 || queue.isEmpty())
+            {
+                Q item = new Q(random.nextInt(6));
+                assertSame(item, queue.get(queue.add(item)));
+            }
+            else if(op == 3)
+                queue.addAt(random.nextInt(queue.size() + 1), new Q(random.nextInt(6)));
+            else if(op == 4)
+                queue.moveItem(random.nextInt(queue.size()), random.nextInt(queue.size()));
+            else if(op == 5)
+                queue.remove(random.nextInt(queue.size()));
+            else if(op == 6)
+                queue.pull();
+            else if(random.nextInt(10) == 0)
+                queue.removeAll(random.nextInt(6));
+            List<Q> list = queue.getList();
+            assertEquals(list.size(), queue.size());
+            for(int j=0; j<list.size(); j++)
+                assertSame(list.get(j), queue.get(j));
+            for(long id=0; id<6; id++)
+            {
+                long owner = id;
+                assertEquals(list.stream().filter(q -> q.getIdentifier() == owner).count(), queue.count(id));
+            }
+        }
+    }
+
+    @Test
+    public void takesOverAnotherQueuesBacklog()
+    {
+        LinearQueue<Q> linear = new LinearQueue<>(null);
+        for(long id: new long[]{1, 1, 1, 2, 2, 3})
+            linear.add(new Q(id));
+        FairQueue<Q> fair = new FairQueue<>(linear);
+        List<Long> owners = new ArrayList<>();
+        fair.getList().forEach(q -> owners.add(q.getIdentifier()));
+        assertEquals(Arrays.asList(1L, 2L, 3L, 1L, 2L, 1L), owners);
+        // entries placed at a position keep their places, and the rest keep their turns
+        Q top = new Q(4), pinned = new Q(5);
+        fair.addAt(0, top);
+        fair.addAt(3, pinned);
+        List<Q> expected = new ArrayList<>(fair.getList());
+        FairQueue<Q> copy = new FairQueue<>(fair);
+        assertEquals(expected, copy.getList());
+        assertEquals(expected.size(), copy.size());
+        assertEquals(1, copy.count(5));
+        for(int i=0; i<expected.size(); i++)
+            assertSame(expected.get(i), copy.get(i));
+        copy.add(new Q(2));
+        assertEquals(pinned, copy.get(3));
+    }
+
+    private static List<Q> orderWithout(List<Q> items, Q... excluded)
+    {
+        FairQueue<Q> queue = new FairQueue<>(null);
+        for(Q item: items)
+            if(!Arrays.asList(excluded).contains(item))
+                queue.add(item);
+        return new ArrayList<>(queue.getList());
+    }
+
+    private static int scanningAdd(List<Q> list, Q item)
+    {
+        int lastIndex;
+        for(lastIndex=list.size()-1; lastIndex>-1; lastIndex--)
+            if(list.get(lastIndex).getIdentifier() == item.getIdentifier())
+                break;
+        lastIndex++;
+        Set<Long> set = new HashSet<>();
+        for(; lastIndex<list.size(); lastIndex++)
+        {
+            if(set.contains(list.get(lastIndex).getIdentifier()))
+                break;
+            set.add(list.get(lastIndex).getIdentifier());
+        }
+        list.add(lastIndex, item);
+        return lastIndex;
+    }
+    
+    private static class Q implements Queueable
     {
         private final long identifier;
         
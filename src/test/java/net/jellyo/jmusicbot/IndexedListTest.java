@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot;
+
+import com.jagrosh.jmusicbot.queue.IndexedList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Jellyo
+ */
+public class IndexedListTest
+{
+    @Test
+    public void matchesArrayList()
+    {
+        Random random = new Random(42);
+        List<Integer> expected = new ArrayList<>();
+        IndexedList<Integer> actual = new IndexedList<>();
+        for(int i=0; i<5000; i++)
+        {
+            int op = random.nextInt(5);
+            if(op < 2 || expected.isEmpty())
+            {
+                int index = random.nextInt(expected.size()+1);
+                expected.add(index, i);
+                actual.add(index, i);
+            }
+            else if(op == 2)
+            {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), actual.remove(index));
+            }
+            else if(op == 3)
+            {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, -i), actual.set(index, -i));
+            }
+            else
+            {
+                int from = random.nextInt(expected.size());
+                int to = from + random.nextInt(Math.min(5, expected.size()-from)+1);
+                expected.subList(from, to).clear();
+                actual.subList(from, to).clear();
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void addAllKeepsOrder()
+    {
+        Random random = new Random(7);
+        List<Integer> expected = new ArrayList<>();
+        IndexedList<Integer> actual = new IndexedList<>();
+        for(int i=0; i<200; i++)
+        {
+            List<Integer> batch = new ArrayList<>();
+            for(int j=random.nextInt(50); j>0; j--)
+                batch.add(random.nextInt());
+            int index = random.nextInt(expected.size()+1);
+            if(random.nextBoolean())
+            {
+                expected.addAll(batch);
+                actual.addAll(batch);
+            }
+            else
+            {
+                expected.addAll(index, batch);
+                actual.addAll(index, batch);
+            }
+            index = random.nextInt(expected.size()+1);
+            expected.add(index, i);
+            actual.add(index, i);
+            index = random.nextInt(expected.size());
+            assertEquals(expected.remove(index), actual.remove(index));
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void iteratorRemove()
+    {
+        IndexedList<Integer> list = new IndexedList<>();
+        for(int i=0; i<100; i++)
+            list.add(i);
+        for(Iterator<Integer> it = list.iterator(); it.hasNext();)
+            if(it.next() % 3 == 0)
+                it.remove();
+        assertEquals(66, list.size());
+        int i = 0;
+        for(int value: list)
+        {
+            if(i % 3 == 0)
+                i++;
+            assertEquals(i++, value);
+        }
+    }
+}
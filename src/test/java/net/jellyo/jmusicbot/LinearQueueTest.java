@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot;
+
+import com.jagrosh.jmusicbot.queue.AbstractQueue;
+import com.jagrosh.jmusicbot.queue.FairQueue;
+import com.jagrosh.jmusicbot.queue.LinearQueue;
+import com.jagrosh.jmusicbot.queue.QueueSnapshot;
+import com.jagrosh.jmusicbot.queue.Queueable;
+import com.jagrosh.jmusicbot.queue.WeightedQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Jellyo
+ */
+public class LinearQueueTest
+{
+    @Test
+    public void appendsInOrder()
+    {
+        LinearQueue<Q> queue = new LinearQueue<>(null);
+        for(int i=0; i<10; i++)
+            assertEquals(i, queue.add(new Q(i % 3)));
+        assertEquals(4, queue.count(0));
+        assertEquals(3, queue.count(2));
+    }
+
+    @Test
+    public void snapshotVersionFollowsModifications()
+    {
+        LinearQueue<Q> queue = new LinearQueue<>(null);
+        queue.add(new Q(1, 1000, null));
+        QueueSnapshot<Q> first = queue.getSnapshot();
+        assertSame(first, queue.getSnapshot());
+        queue.add(new Q(2, 500, null));
+        QueueSnapshot<Q> second = queue.getSnapshot();
+        assertNotEquals(first.getVersion(), second.getVersion());
+        assertEquals(1, first.size());
+        assertEquals(2, second.size());
+        assertEquals(1000, first.getTotalDuration());
+        assertEquals(1500, second.getTotalDuration());
+        assertNotEquals(second.getVersion(), new FairQueue<>(queue).getSnapshot().getVersion());
+    }
+
+    @Test
+    public void indexesStayConsistent()
+    {
+        checkIndexes(new LinearQueue<>(null), true);
+        checkIndexes(new FairQueue<>(null), true);
+        // reordering an owner's entries changes their airtime, so others can move
+        checkIndexes(new WeightedQueue<>(null), false);
+    }
+
+    private static void checkIndexes(AbstractQueue<Q> queue, boolean shuffleKeepsOthers)
+    {
+        Random random = new Random(3);
+        List<Q> expected = new ArrayList<>();
+        for(int i=0; i<4000; i++)
+        {
+            int op = random.nextInt(10);
+            long owner = random.nextInt(8);
+            if(op < 4 || queue.isEmpty())
+            {
+                queue.add(new Q(owner, random.nextInt(300000), "t"+random.nextInt(40)));
+            }
+            else if(op == 4)
+            {
+                queue.addAt(random.nextInt(queue.size()+1), new Q(owner, random.nextInt(300000), "t"+random.nextInt(40)));
+            }
+            else if(op == 5)
+            {
+                queue.moveItem(random.nextInt(queue.size()), random.nextInt(queue.size()));
+            }
+            else if(op == 6)
+            {
+                queue.skip(random.nextInt(Math.min(3, queue.size())+1));
+            }
+            else if(op == 7)
+            {
+                queue.remove(random.nextInt(queue.size()));
+            }
+            else if(op == 8 && random.nextInt(5) == 0)
+            {
+                int count = scan(queue, owner);
+                assertEquals(count, queue.removeAll(owner));
+            }
+            else
+            {
+                expected.clear();
+                expected.addAll(queue.getList());
+                int count = queue.shuffle(owner);
+                assertEquals(scan(queue, owner), count);
+                for(int j=0; shuffleKeepsOthers && j<expected.size(); j++)
+                    if(expected.get(j).getIdentifier() != owner)
+                        assertSame(expected.get(j), queue.get(j));
+            }
+            for(long id=0; id<8; id++)
+                assertEquals(scan(queue, id), queue.count(id));
+            List<Q> list = queue.getList();
+            long duration = 0;
+            for(int j=0; j<list.size(); j++)
+            {
+                if(j % 7 == 0)
+                    assertEquals(duration, queue.getDurationBefore(j));
+                duration += list.get(j).getDuration();
+            }
+            assertEquals(duration, queue.getDurationBefore(list.size()));
+            assertEquals(duration, queue.getTotalDuration());
+            for(int key=0; key<40; key++)
+            {
+                Q probe = new Q(0, 0, "t"+key);
+                assertEquals(list.stream().anyMatch(q -> q.key.equals(probe.key)), queue.containsDuplicate(probe));
+            }
+        }
+        queue.clear();
+        assertFalse(queue.containsDuplicate(new Q(0, 0, "t0")));
+    }
+
+    private static int scan(AbstractQueue<Q> queue, long identifier)
+    {
+        int count = 0;
+        for(Q q: queue.getList())
+            if(q.getIdentifier() == identifier)
+                count++;
+        return count;
+    }
+
+    private static class Q implements Queueable
+    {
+        private final long identifier;
+        private final long duration;
+        private final String key;
+
+        private Q(long identifier)
+        {
+            this(identifier, 0, null);
+        }
+
+        private Q(long identifier, long duration, String key)
+        {
+            this.identifier = identifier;
+            this.duration = duration;
+            this.key = key;
+        }
+
+        @Override
+        public long getIdentifier()
+        {
+            return identifier;
+        }
+
+        @Override
+        public long getDuration()
+        {
+            return duration;
+        }
+
+        @Override
+        public List<String> getKeys()
+        {
+            return key == null ? Collections.emptyList() : Collections.singletonList(key);
+        }
+    }
+}
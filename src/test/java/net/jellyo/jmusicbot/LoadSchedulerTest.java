@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot;
+
+import com.jagrosh.jmusicbot.audio.LoadScheduler;
+import com.jagrosh.jmusicbot.audio.LoadScheduler.Priority;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Jellyo
+ */
+public class LoadSchedulerTest
+{
+    @Test
+    public void interactiveOvertakesBackground()
+    {
+        LoadScheduler scheduler = new LoadScheduler(1, 2);
+        List<String> started = new ArrayList<>();
+        ArrayDeque<Runnable> running = new ArrayDeque<>();
+        for(int i=0; i<5; i++)
+        {
+            String name = "b"+i;
+            scheduler.submit(Priority.BACKGROUND, done -> { started.add(name); running.add(done); });
+        }
+        assertEquals(2, scheduler.getRunning(Priority.BACKGROUND));
+        assertEquals(3, scheduler.getQueued(Priority.BACKGROUND));
+        scheduler.submit(Priority.INTERACTIVE, done -> { started.add("i0"); running.add(done); });
+        scheduler.submit(Priority.INTERACTIVE, done -> { started.add("i1"); running.add(done); });
+        // the first interactive load has its own slot, the second waits for it
+        assertEquals(1, scheduler.getRunning(Priority.INTERACTIVE));
+        assertEquals(1, scheduler.getQueued(Priority.INTERACTIVE));
+        // a background slot frees up, but an interactive load is still waiting
+        running.poll().run();
+        assertEquals(1, scheduler.getRunning(Priority.BACKGROUND));
+        assertEquals(3, scheduler.getQueued(Priority.BACKGROUND));
+        while(!running.isEmpty())
+            running.poll().run();
+        assertEquals(7, started.size());
+        assertEquals(started.subList(0, 4), List.of("b0", "b1", "i0", "i1"));
+        assertEquals(started.subList(4, 7), List.of("b2", "b3", "b4"));
+        assertEquals(0, scheduler.getQueued(Priority.BACKGROUND));
+        assertEquals(5, scheduler.getStarted(Priority.BACKGROUND));
+        long waited = 0;
+        for(long count: scheduler.getWaitHistogram(Priority.INTERACTIVE))
+            waited += count;
+        assertEquals(2, waited);
+    }
+
+    @Test
+    public void finishingTwiceFreesOneSlot()
+    {
+        LoadScheduler scheduler = new LoadScheduler(1, 1);
+        Runnable[] first = new Runnable[1];
+        scheduler.submit(Priority.INTERACTIVE, done -> first[0] = done);
+        scheduler.submit(Priority.INTERACTIVE, done -> {});
+        scheduler.submit(Priority.INTERACTIVE, done -> {});
+        first[0].run();
+        first[0].run();
+        assertEquals(1, scheduler.getRunning(Priority.INTERACTIVE));
+        assertEquals(1, scheduler.getQueued(Priority.INTERACTIVE));
+    }
+
+    @Test
+    public void failingToStartFreesTheSlot()
+    {
+        LoadScheduler scheduler = new LoadScheduler(1, 2);
+        List<String> started = new ArrayList<>();
+        Runnable[] first = new Runnable[1];
+        scheduler.submit(Priority.INTERACTIVE, done -> first[0] = done);
+        scheduler.submit(Priority.INTERACTIVE, done -> { started.add("i1"); done.run(); });
+        scheduler.submit(Priority.BACKGROUND, done -> { throw new IllegalStateException("rejected"); });
+        scheduler.submit(Priority.BACKGROUND, done -> { started.add("b1"); done.run(); });
+        // the rest start in one go, and the load that fails to start is passed over
+        first[0].run();
+        assertEquals(List.of("i1", "b1"), started);
+        assertEquals(0, scheduler.getRunning(Priority.BACKGROUND));
+        assertEquals(0, scheduler.getQueued(Priority.BACKGROUND));
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot;
+
+import com.jagrosh.jmusicbot.queue.AbstractQueue;
+import com.jagrosh.jmusicbot.queue.FairQueue;
+import com.jagrosh.jmusicbot.queue.LinearQueue;
+import com.jagrosh.jmusicbot.queue.QueueHolder;
+import com.jagrosh.jmusicbot.queue.QueueSupplier;
+import com.jagrosh.jmusicbot.queue.Queueable;
+import com.jagrosh.jmusicbot.queue.WeightedQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Jellyo
+ */
+public class QueueConcurrencyTest
+{
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 5000;
+
+    @Test
+    public void linearQueueSurvivesConcurrentUse() throws InterruptedException
+    {
+        stress(new LinearQueue<>(null));
+    }
+
+    @Test
+    public void fairQueueSurvivesConcurrentUse() throws InterruptedException
+    {
+        stress(new FairQueue<>(null));
+    }
+
+    @Test
+    public void weightedQueueSurvivesConcurrentUse() throws InterruptedException
+    {
+        stress(new WeightedQueue<>(null));
+    }
+
+    @Test
+    public void switchingTypesLosesNothing() throws InterruptedException
+    {
+        QueueSupplier[] types = {LinearQueue::new, FairQueue::new, WeightedQueue::new};
+        AtomicInteger counter = new AtomicInteger();
+        QueueHolder<Q> holder = new QueueHolder<>(LinearQueue::new, counter);
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for(int t=0; t<THREADS; t++)
+        {
+            long seed = t;
+            boolean switching = t == 0;
+            Thread thread = new Thread(() ->
+            {
+                Random random = new Random(seed);
+                try
+                {
+                    start.await();
+                    for(int i=0; i<OPERATIONS; i++)
+                    {
+                        if(switching)
+                        {
+                            holder.replace(types[i % types.length]);
+                            continue;
+                        }
+                        // what the handler and the commands do
+                        synchronized(holder)
+                        {
+                            AbstractQueue<Q> queue = holder.get();
+                            if(random.nextInt(4) > 0)
+                            {
+                                queue.add(new Q(random.nextInt(16)));
+                                added.incrementAndGet();
+                            }
+                            else if(!queue.isEmpty())
+                            {
+                                queue.pull();
+                                removed.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+                catch(Throwable e)
+                {
+                    errors.add(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for(Thread thread: threads)
+            thread.join();
+        if(!errors.isEmpty())
+            throw new AssertionError(errors.peek());
+        assertEquals(added.get() - removed.get(), holder.get().size());
+        assertEquals(holder.get().size(), counter.get());
+    }
+
+    private static void stress(AbstractQueue<Q> queue) throws InterruptedException
+    {
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        AtomicInteger counter = new AtomicInteger();
+        queue.setCounter(counter);
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for(int t=0; t<THREADS; t++)
+        {
+            long seed = t;
+            Thread thread = new Thread(() ->
+            {
+                Random random = new Random(seed);
+                try
+                {
+                    start.await();
+                    for(int i=0; i<OPERATIONS; i++)
+                        step(queue, random, added, removed);
+                }
+                catch(Throwable e)
+                {
+                    errors.add(e);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for(Thread thread: threads)
+            thread.join();
+        if(!errors.isEmpty())
+            throw new AssertionError(errors.peek());
+        assertEquals(added.get() - removed.get(), queue.size());
+        assertEquals(queue.size(), queue.getList().size());
+        assertEquals(queue.size(), counter.get());
+        int total = 0;
+        for(long id=0; id<16; id++)
+            total += queue.count(id);
+        assertEquals(queue.size(), total);
+    }
+
+    private static void step(AbstractQueue<Q> queue, Random random, AtomicInteger added, AtomicInteger removed)
+    {
+        int op = random.nextInt(10);
+        if(op < 4)
+        {
+            queue.add(new Q(random.nextInt(16)));
+            added.incrementAndGet();
+        }
+        else if(op == 4)
+        {
+            // the same compound checks the commands and the player make
+            synchronized(queue)
+            {
+                if(!queue.isEmpty())
+                {
+                    queue.pull();
+                    removed.incrementAndGet();
+                }
+            }
+        }
+        else if(op == 5)
+        {
+            synchronized(queue)
+            {
+                if(!queue.isEmpty())
+                    queue.moveItem(random.nextInt(queue.size()), random.nextInt(queue.size()));
+            }
+        }
+        else if(op == 6)
+        {
+            synchronized(queue)
+            {
+                if(!queue.isEmpty())
+                {
+                    queue.remove(random.nextInt(queue.size()));
+                    removed.incrementAndGet();
+                }
+            }
+        }
+        else
+        {
+            // readers never lock, and always see a consistent queue
+            List<Q> snapshot = queue.getList();
+            int count = 0;
+            for(Q q: snapshot)
+            {
+                assertNotNull(q);
+                count++;
+            }
+            assertEquals(snapshot.size(), count);
+        }
+    }
+
+    private static class Q implements Queueable
+    {
+        private final long identifier;
+
+        private Q(long identifier)
+        {
+            this.identifier = identifier;
+        }
+
+        @Override
+        public long getIdentifier()
+        {
+            return identifier;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot;
+
+import com.jagrosh.jmusicbot.playlist.SharedCursor;
+import com.jagrosh.jmusicbot.playlist.SharedPlaylist;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Jellyo
+ */
+public class SharedPlaylistTest
+{
+    @Test
+    public void everyCursorTakesEveryTrackOnce()
+    {
+        SharedPlaylist<Integer> playlist = new SharedPlaylist<>(false, UnaryOperator.identity(), p -> {});
+        SharedCursor<Integer> early = playlist.open(c -> {});
+        playlist.add(Arrays.asList(0, 1, 2));
+        assertEquals(Integer.valueOf(0), early.next());
+        SharedCursor<Integer> late = playlist.open(c -> {});
+        playlist.add(Arrays.asList(3, 4));
+        playlist.finish();
+        assertEquals(Arrays.asList(1, 2, 3, 4), drain(early));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), drain(late));
+        assertTrue(early.isFinished());
+        assertTrue(late.isFinished());
+    }
+
+    @Test
+    public void cursorsWaitForTracksStillResolving()
+    {
+        SharedPlaylist<Integer> playlist = new SharedPlaylist<>(false, UnaryOperator.identity(), p -> {});
+        AtomicInteger told = new AtomicInteger();
+        SharedCursor<Integer> cursor = playlist.open(c -> told.incrementAndGet());
+        assertNull(cursor.next());
+        assertFalse(cursor.isFinished());
+        playlist.add(Collections.singletonList(7));
+        assertEquals(1, told.get());
+        assertEquals(Integer.valueOf(7), cursor.next());
+        assertFalse(cursor.isFinished());
+        playlist.finish();
+        assertEquals(2, told.get());
+        assertTrue(cursor.isFinished());
+        assertEquals(1, cursor.getTotal());
+    }
+
+    @Test
+    public void shuffledCursorsTakeAPermutation()
+    {
+        SharedPlaylist<Integer> playlist = new SharedPlaylist<>(true, UnaryOperator.identity(), p -> {});
+        SharedCursor<Integer> cursor = playlist.open(c -> {});
+        List<Integer> expected = new ArrayList<>();
+        for(int i=0; i<100; i++)
+        {
+            expected.add(i);
+            playlist.add(Collections.singletonList(i));
+            if(i % 3 == 0)
+                assertNotNull(cursor.next());
+        }
+        playlist.finish();
+        drain(cursor);
+        assertTrue(cursor.isFinished());
+        SharedCursor<Integer> other = playlist.open(c -> {});
+        List<Integer> taken = drain(other);
+        Collections.sort(taken);
+        assertEquals(expected, taken);
+    }
+
+    @Test
+    public void handsOutCopies()
+    {
+        SharedPlaylist<StringBuilder> playlist = new SharedPlaylist<>(false, StringBuilder::new, p -> {});
+        StringBuilder track = new StringBuilder("track");
+        playlist.add(Collections.singletonList(track));
+        StringBuilder copy = playlist.open(c -> {}).next();
+        assertNotSame(track, copy);
+        assertEquals("track", copy.toString());
+    }
+
+    @Test
+    public void releasedWhenTheLastCursorCloses()
+    {
+        AtomicInteger released = new AtomicInteger();
+        SharedPlaylist<Integer> playlist = new SharedPlaylist<>(false, UnaryOperator.identity(), p -> released.incrementAndGet());
+        SharedCursor<Integer> first = playlist.open(c -> {});
+        SharedCursor<Integer> second = playlist.open(c -> {});
+        first.close();
+        first.close();
+        assertEquals(0, released.get());
+        assertFalse(playlist.isUnused());
+        second.close();
+        assertEquals(1, released.get());
+        assertTrue(playlist.isUnused());
+        assertNull(second.next());
+    }
+
+    @Test(timeout = 20000)
+    public void addingWhileCursorsAreHeldDoesNotDeadlock() throws InterruptedException
+    {
+        SharedPlaylist<Integer> playlist = new SharedPlaylist<>(false, UnaryOperator.identity(), p -> {});
+        ConcurrentLinkedQueue<Integer> taken = new ConcurrentLinkedQueue<>();
+        // what AudioHandler does: take tracks with the cursor held, both when told and on its own
+        SharedCursor<Integer> cursor = playlist.open(c ->
+        {
+            synchronized(c)
+            {
+                Integer next = c.next();
+                if(next != null)
+                    taken.add(next);
+            }
+        });
+        int tracks = 20000;
+        Thread adder = new Thread(() ->
+        {
+            for(int i=0; i<tracks; i++)
+                playlist.add(Collections.singletonList(i));
+            playlist.finish();
+        });
+        adder.start();
+        while(true)
+        {
+            synchronized(cursor)
+            {
+                Integer next = cursor.next();
+                if(next != null)
+                    taken.add(next);
+                else if(cursor.isFinished())
+                    break;
+            }
+        }
+        adder.join();
+        List<Integer> sorted = new ArrayList<>(taken);
+        Collections.sort(sorted);
+        assertEquals(tracks, sorted.size());
+        for(int i=0; i<tracks; i++)
+            assertEquals(i, sorted.get(i).intValue());
+    }
+
+    private static <T> List<T> drain(SharedCursor<T> cursor)
+    {
+        List<T> taken = new ArrayList<>();
+        for(T next = cursor.next(); next != null; next = cursor.next())
+            taken.add(next);
+        return taken;
+    }
+}
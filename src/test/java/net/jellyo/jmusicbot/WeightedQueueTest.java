@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 John Grosh <john.a.grosh@gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jagrosh.jmusicbot;
+
+import com.jagrosh.jmusicbot.queue.FairQueue;
+import com.jagrosh.jmusicbot.queue.Queueable;
+import com.jagrosh.jmusicbot.queue.WeightedQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Jellyo
+ */
+public class WeightedQueueTest
+{
+    @Test
+    public void equalTracksTakeTurns()
+    {
+        // with one track per quantum it plays like the fair queue
+        Random random = new Random(5);
+        WeightedQueue<Q> weighted = new WeightedQueue<>(null, 1000);
+        FairQueue<Q> fair = new FairQueue<>(null);
+        for(int i=0; i<500; i++)
+        {
+            Q item = new Q(random.nextInt(6), 1000);
+            assertEquals(fair.add(item), weighted.add(item));
+        }
+        assertEquals(fair.getList(), weighted.getList());
+    }
+
+    @Test
+    public void longTracksWaitMoreTurns()
+    {
+        WeightedQueue<Q> queue = new WeightedQueue<>(null, 3000);
+        for(int i=0; i<5; i++)
+            queue.add(new Q(1, 9000));
+        for(int i=0; i<30; i++)
+            queue.add(new Q(2, 3000));
+        long[] airtime = new long[3];
+        for(int i=0; i<20; i++)
+        {
+            Q q = queue.pull();
+            airtime[(int)q.getIdentifier()] += q.getDuration();
+        }
+        // a fair queue would give 90 seconds to the first owner and 30 to the second
+        assertEquals(45000, airtime[1]);
+        assertEquals(45000, airtime[2]);
+    }
+
+    @Test
+    public void pullsFollowTheListedOrder()
+    {
+        Random random = new Random(9);
+        WeightedQueue<Q> queue = new WeightedQueue<>(null, 4000);
+        for(int i=0; i<2000; i++)
+        {
+            if(random.nextInt(3) == 0 && !queue.isEmpty())
+            {
+                List<Q> expected = new ArrayList<>(queue.getList());
+                assertSame(expected.get(0), queue.pull());
+                assertEquals(expected.subList(1, expected.size()), queue.getList());
+            }
+            else
+            {
+                List<Q> batch = new ArrayList<>();
+                for(int j=random.nextInt(3)+1; j>0; j--)
+                    batch.add(new Q(random.nextInt(5), random.nextInt(10000)));
+                queue.addAll(batch);
+            }
+        }
+    }
+
+    @Test
+    public void positionsMatchTheSchedule()
+    {
+        // add and getDurationBefore work from running durations rather than the listed order
+        Random random = new Random(13);
+        WeightedQueue<Q> queue = new WeightedQueue<>(null, 4000);
+        for(int i=0; i<3000; i++)
+        {
+            if(random.nextInt(3) == 0 && !queue.isEmpty())
+                queue.pull();
+            else
+            {
+                Q item = new Q(random.nextInt(6), random.nextInt(5) == 0 ? 0 : random.nextInt(15000));
+                int position = queue.add(item);
+                assertSame(item, queue.get(position));
+            }
+            List<Q> list = queue.getList();
+            long duration = 0;
+            for(int j=0; j<list.size(); j++)
+            {
+                if(j % 5 == 0)
+                    assertEquals(duration, queue.getDurationBefore(j));
+                duration += list.get(j).getDuration();
+            }
+            assertEquals(duration, queue.getDurationBefore(list.size()));
+        }
+    }
+
+    @Test
+    public void positionsMatchTheListWithPinnedEntries()
+    {
+        Random random = new Random(19);
+        WeightedQueue<Q> queue = new WeightedQueue<>(null, 4000);
+        for(int i=0; i<3000; i++)
+        {
+            int op = random.nextInt(8);
+            if(op < 3 || queue.isEmpty())
+            {
+                Q item = new Q(random.nextInt(6), random.nextInt(15000));
+                assertSame(item, queue.get(queue.add(item)));
+            }
+            else if(op == 3)
+                queue.addAt(random.nextInt(queue.size() + 1), new Q(random.nextInt(6), random.nextInt(15000)));
+            else if(op == 4)
+                queue.moveItem(random.nextInt(queue.size()), random.nextInt(queue.size()));
+            else if(op == 5)
+                queue.remove(random.nextInt(queue.size()));
+            else if(op == 6)
+                queue.pull();
+            else if(random.nextInt(10) == 0)
+                queue.removeAll(random.nextInt(6));
+            List<Q> list = queue.getList();
+            long duration = 0;
+            for(int j=0; j<list.size(); j++)
+            {
+                assertSame(list.get(j), queue.get(j));
+                assertEquals(duration, queue.getDurationBefore(j));
+                duration += list.get(j).getDuration();
+            }
+            assertEquals(duration, queue.getTotalDuration());
+        }
+    }
+
+    @Test
+    public void shufflingKeepsEveryoneElsesOrder()
+    {
+        Random random = new Random(23);
+        WeightedQueue<Q> queue = new WeightedQueue<>(null, 4000);
+        for(int i=0; i<200; i++)
+            queue.add(new Q(random.nextInt(4), random.nextInt(10000)));
+        for(int i=0; i<20; i++)
+        {
+            queue.pull();
+            queue.add(new Q(random.nextInt(4), random.nextInt(10000)));
+            List<Q> before = new ArrayList<>(queue.getList());
+            assertEquals(queue.count(1), queue.shuffle(1));
+            List<Q> after = queue.getList();
+            assertEquals(before.size(), after.size());
+            assertTrue(after.containsAll(before));
+            // the others' entries may play at other positions, but not in another order
+            assertEquals(without(before, 1), without(after, 1));
+        }
+        // with equal durations the owner's turns do not change, so no one else moves
+        WeightedQueue<Q> equal = new WeightedQueue<>(null, 4000);
+        for(int i=0; i<200; i++)
+        {
+            int owner = random.nextInt(4);
+            equal.add(new Q(owner, owner == 1 ? 2500 : random.nextInt(10000)));
+        }
+        List<Q> before = new ArrayList<>(equal.getList());
+        equal.shuffle(1);
+        List<Q> after = equal.getList();
+        for(int i=0; i<before.size(); i++)
+            if(before.get(i).getIdentifier() != 1)
+                assertSame(before.get(i), after.get(i));
+    }
+
+    @Test
+    public void newRequesterStaysFairAfterTailOperations()
+    {
+        WeightedQueue<Q> queue = new WeightedQueue<>(null, 1000);
+        for(int i=0; i<50; i++)
+        {
+            queue.add(new Q(1, 1000));
+            queue.add(new Q(2, 1000));
+        }
+        queue.remove(99);
+        queue.moveItem(97, 96);
+        assertEquals(2, queue.add(new Q(3, 1000)));
+    }
+
+    private static List<Q> without(List<Q> items, long identifier)
+    {
+        List<Q> kept = new ArrayList<>();
+        for(Q item: items)
+            if(item.getIdentifier() != identifier)
+                kept.add(item);
+        return kept;
+    }
+
+    private static class Q implements Queueable
+    {
+        private final long identifier;
+        private final long duration;
+
+        private Q(long identifier, long duration)
+        {
+            this.identifier = identifier;
+            this.duration = duration;
+        }
+
+        @Override
+        public long getIdentifier()
+        {
+            return identifier;
+        }
+
+        @Override
+        public long getDuration()
+        {
+            return duration;
+        }
+    }
+}